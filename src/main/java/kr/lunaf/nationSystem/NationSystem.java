@@ -8,51 +8,73 @@ import kr.lunaf.nationSystem.config.QuestsConfig;
 import kr.lunaf.nationSystem.config.WarConfig;
 import kr.lunaf.nationSystem.db.DatabaseManager;
 import kr.lunaf.nationSystem.db.SchemaManager;
+import kr.lunaf.nationSystem.domain.BuildingDefinition;
 import kr.lunaf.nationSystem.listener.BuildingPlaceListener;
 import kr.lunaf.nationSystem.listener.ChatListener;
 import kr.lunaf.nationSystem.listener.ProclamationListener;
 import kr.lunaf.nationSystem.listener.QuestProgressListener;
+import kr.lunaf.nationSystem.listener.PlayerSessionListener;
 import kr.lunaf.nationSystem.listener.StorageListener;
+import kr.lunaf.nationSystem.listener.TerritoryPresenceListener;
+import kr.lunaf.nationSystem.listener.PvpListener;
+import kr.lunaf.nationSystem.listener.TerritoryProtectionListener;
+import kr.lunaf.nationSystem.listener.WarCombatListener;
 import kr.lunaf.nationSystem.repository.BankHistoryRepository;
 import kr.lunaf.nationSystem.repository.BuildingRepository;
 import kr.lunaf.nationSystem.repository.DailyQuestRepository;
+import kr.lunaf.nationSystem.repository.NationCounterRepository;
 import kr.lunaf.nationSystem.repository.NationMemberRepository;
 import kr.lunaf.nationSystem.repository.NationRepository;
 import kr.lunaf.nationSystem.repository.NationSettingsRepository;
 import kr.lunaf.nationSystem.repository.NationStorageRepository;
+import kr.lunaf.nationSystem.repository.PlayerSessionRepository;
 import kr.lunaf.nationSystem.repository.PlayerSettingsRepository;
 import kr.lunaf.nationSystem.repository.PresentClaimRepository;
 import kr.lunaf.nationSystem.repository.TerritoryRepository;
+import kr.lunaf.nationSystem.repository.WarRepository;
 import kr.lunaf.nationSystem.service.BankService;
+import kr.lunaf.nationSystem.service.BlockEditService;
 import kr.lunaf.nationSystem.service.BuildingService;
 import kr.lunaf.nationSystem.service.EconomyService;
 import kr.lunaf.nationSystem.service.InvitationService;
+import kr.lunaf.nationSystem.service.LeaderboardService;
+import kr.lunaf.nationSystem.service.NationCounterStore;
+import kr.lunaf.nationSystem.service.NationDirectory;
 import kr.lunaf.nationSystem.service.NamePromptService;
 import kr.lunaf.nationSystem.service.NationService;
+import kr.lunaf.nationSystem.service.OnlineRoster;
 import kr.lunaf.nationSystem.service.NationLevelService;
 import kr.lunaf.nationSystem.service.PresentService;
 import kr.lunaf.nationSystem.service.QuestService;
 import kr.lunaf.nationSystem.service.ShopService;
 import kr.lunaf.nationSystem.service.StorageService;
 import kr.lunaf.nationSystem.service.StructureService;
+import kr.lunaf.nationSystem.service.TerritoryIndex;
+import kr.lunaf.nationSystem.service.TerritoryPresence;
 import kr.lunaf.nationSystem.service.TerritoryService;
 import kr.lunaf.nationSystem.service.WarService;
 import kr.lunaf.nationSystem.api.NationSystemApiImpl;
 import kr.lunaf.nationSystem.skript.SkriptBridge;
 import kr.lunaf.nationSystem.skript.SkriptHook;
 import kr.lunaf.nationSystem.util.CustomItems;
-import kr.lunaf.nationSystem.util.SyncExecutor;
+import kr.lunaf.nationSystem.util.JobScheduler;
+import kr.lunaf.nationSystem.util.MainThreadExecutor;
+import kr.lunaf.nationSystem.util.WorkloadExecutor;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public final class NationSystem extends JavaPlugin {
     private PluginConfig pluginConfig;
     private Messages messages;
     private DatabaseManager databaseManager;
-    private ExecutorService dbExecutor;
+    private WorkloadExecutor interactiveExecutor;
+    private WorkloadExecutor backgroundExecutor;
+    private WorkloadExecutor bulkExecutor;
     private NationService nationService;
     private EconomyService economyService;
     private TerritoryService territoryService;
@@ -64,6 +86,10 @@ public final class NationSystem extends JavaPlugin {
     private NationLevelService nationLevelService;
     private StorageService storageService;
     private PresentService presentService;
+    private BlockEditService blockEditService;
+    private MainThreadExecutor mainThread;
+    private JobScheduler jobScheduler;
+    private NationCounterStore counterStore;
 
     @Override
     public void onEnable() {
@@ -76,34 +102,96 @@ public final class NationSystem extends JavaPlugin {
 
         databaseManager = new DatabaseManager(pluginConfig.databaseConfig());
         new SchemaManager(databaseManager).initialize();
-        dbExecutor = Executors.newFixedThreadPool(Math.max(2, pluginConfig.databaseConfig().poolSize()));
+        int poolSize = pluginConfig.databaseConfig().poolSize();
+        int bulkConcurrency = 1;
+        int backgroundConcurrency = Math.min(poolSize - bulkConcurrency - 1, pluginConfig.backgroundConcurrency());
+        int interactiveConcurrency = poolSize - backgroundConcurrency - bulkConcurrency;
+        interactiveExecutor = new WorkloadExecutor(
+            "interactive",
+            interactiveConcurrency,
+            pluginConfig.interactiveQueueCapacity(),
+            getLogger()
+        );
+        backgroundExecutor = new WorkloadExecutor(
+            "background",
+            backgroundConcurrency,
+            pluginConfig.backgroundQueueCapacity(),
+            getLogger()
+        );
+        bulkExecutor = new WorkloadExecutor("bulk", bulkConcurrency, pluginConfig.bulkQueueCapacity(), getLogger());
 
         NationRepository nationRepository = new NationRepository(databaseManager);
         NationMemberRepository memberRepository = new NationMemberRepository(databaseManager);
         NationSettingsRepository settingsRepository = new NationSettingsRepository(databaseManager);
         PlayerSettingsRepository playerSettingsRepository = new PlayerSettingsRepository(databaseManager);
+        PlayerSessionRepository sessionRepository = new PlayerSessionRepository(databaseManager);
         TerritoryRepository territoryRepository = new TerritoryRepository(databaseManager);
         BuildingRepository buildingRepository = new BuildingRepository(databaseManager);
         DailyQuestRepository dailyQuestRepository = new DailyQuestRepository(databaseManager);
         BankHistoryRepository bankHistoryRepository = new BankHistoryRepository(databaseManager);
         NationStorageRepository nationStorageRepository = new NationStorageRepository(databaseManager);
         PresentClaimRepository presentClaimRepository = new PresentClaimRepository(databaseManager);
+        NationCounterRepository counterRepository = new NationCounterRepository(databaseManager);
+        WarRepository warRepository = new WarRepository(databaseManager);
+
+        LeaderboardService leaderboard = new LeaderboardService(nationRepository);
+        counterStore = new NationCounterStore(
+            databaseManager,
+            nationRepository,
+            counterRepository,
+            bankHistoryRepository,
+            backgroundExecutor,
+            getDataFolder(),
+            leaderboard,
+            getLogger()
+        );
+        counterStore.start();
+        leaderboard.load();
+        OnlineRoster onlineRoster = new OnlineRoster();
+        NationDirectory directory = new NationDirectory(
+            nationRepository,
+            memberRepository,
+            settingsRepository,
+            onlineRoster,
+            interactiveExecutor
+        );
+        directory.loadNames();
+        directory.loadSettings();
+
+        TerritoryIndex territoryIndex = new TerritoryIndex(
+            Math.max(pluginConfig.territoryMinDistance(), pluginConfig.territorySize())
+        );
+        territoryIndex.load(territoryRepository.listAll());
+        TerritoryPresence territoryPresence = new TerritoryPresence(territoryIndex);
 
         InvitationService invitationService = new InvitationService(pluginConfig);
         NamePromptService namePromptService = new NamePromptService();
         economyService = new EconomyService(this);
-        StructureService structureService = new StructureService(pluginConfig, getDataFolder());
+        StructureService structureService = new StructureService(pluginConfig, getDataFolder(), getLogger());
+        structureService.preload(
+            buildingsConfig.all().values().stream().map(BuildingDefinition::structurePath).toList()
+        );
+        mainThread = new MainThreadExecutor(this, pluginConfig::mainThreadTickBudgetMillis);
+        mainThread.start();
+        jobScheduler = new JobScheduler(getLogger());
+        blockEditService = new BlockEditService(this, pluginConfig);
+        blockEditService.start();
         nationService = new NationService(
             pluginConfig,
             databaseManager,
             nationRepository,
             memberRepository,
             settingsRepository,
+            directory,
+            leaderboard,
+            onlineRoster,
             playerSettingsRepository,
+            sessionRepository,
             invitationService,
             economyService,
-            dbExecutor,
-            new SyncExecutor(this)
+            interactiveExecutor,
+            bulkExecutor,
+            mainThread
         );
         territoryService = new TerritoryService(
             pluginConfig,
@@ -111,70 +199,87 @@ public final class NationSystem extends JavaPlugin {
             nationRepository,
             memberRepository,
             settingsRepository,
+            directory,
+            leaderboard,
             territoryRepository,
+            territoryIndex,
+            territoryPresence,
             structureService,
+            blockEditService,
+            counterStore,
             nationService,
-            dbExecutor,
-            new SyncExecutor(this)
+            interactiveExecutor,
+            backgroundExecutor,
+            mainThread,
+            getLogger()
         );
+        territoryService.startExpiryQueue();
         buildingService = new BuildingService(
             pluginConfig,
             buildingsConfig,
             databaseManager,
             buildingRepository,
-            nationRepository,
-            territoryRepository,
-            memberRepository,
+            territoryIndex,
+            directory,
             structureService,
-            dbExecutor,
-            new SyncExecutor(this)
+            interactiveExecutor,
+            backgroundExecutor,
+            mainThread,
+            getLogger()
         );
+        buildingService.startCompletionQueue();
         CustomItems customItems = new CustomItems(this);
         questService = new QuestService(
             questsConfig,
             databaseManager,
             dailyQuestRepository,
-            memberRepository,
-            nationRepository,
-            territoryRepository,
+            directory,
+            territoryIndex,
+            counterStore,
             nationService,
-            dbExecutor
+            interactiveExecutor,
+            backgroundExecutor,
+            getLogger()
         );
         shopService = new ShopService(
             buildingsConfig,
-            memberRepository,
-            nationRepository,
+            directory,
             buildingService,
             economyService,
             customItems,
-            dbExecutor,
-            new SyncExecutor(this)
+            interactiveExecutor,
+            mainThread
         );
         warService = new WarService(
             warConfig,
-            nationRepository,
-            memberRepository,
+            databaseManager,
+            warRepository,
+            directory,
+            onlineRoster,
             nationService,
-            dbExecutor
+            counterStore,
+            interactiveExecutor,
+            backgroundExecutor,
+            getLogger()
         );
+        warService.recover();
+        warService.startEvents();
         bankService = new BankService(
             databaseManager,
-            nationRepository,
-            memberRepository,
-            bankHistoryRepository,
+            directory,
+            counterStore,
             buildingService,
             economyService,
-            dbExecutor,
-            new SyncExecutor(this)
+            interactiveExecutor,
+            mainThread
         );
         nationLevelService = new NationLevelService(
             pluginConfig,
-            databaseManager,
             nationRepository,
-            memberRepository,
-            bankHistoryRepository,
-            nationService,
-            dbExecutor
+            directory,
+            counterStore,
+            leaderboard,
+            interactiveExecutor
         );
         storageService = new StorageService(
             pluginConfig,
@@ -182,25 +287,26 @@ public final class NationSystem extends JavaPlugin {
             nationService,
             buildingService,
             nationStorageRepository,
-            dbExecutor,
-            new SyncExecutor(this)
+            interactiveExecutor,
+            mainThread,
+            getLogger()
         );
         presentService = new PresentService(
             pluginConfig,
             databaseManager,
-            memberRepository,
-            nationRepository,
+            directory,
+            counterStore,
             presentClaimRepository,
             buildingService,
             economyService,
-            dbExecutor,
-            new SyncExecutor(this)
+            interactiveExecutor,
+            mainThread
         );
 
         PluginCommand nationCommand = getCommand("nation");
         if (nationCommand != null) {
             NationCommand executor = new NationCommand(
-                this,
+                mainThread,
                 messages,
                 nationService,
                 pluginConfig,
@@ -213,7 +319,11 @@ public final class NationSystem extends JavaPlugin {
                 nationLevelService,
                 territoryService,
                 storageService,
-                presentService
+                presentService,
+                directory,
+                leaderboard,
+                List.of(interactiveExecutor, backgroundExecutor, bulkExecutor),
+                jobScheduler
             );
             nationCommand.setExecutor(executor);
             nationCommand.setTabCompleter(executor);
@@ -224,11 +334,11 @@ public final class NationSystem extends JavaPlugin {
             this
         );
         getServer().getPluginManager().registerEvents(
-            new ProclamationListener(this, messages, pluginConfig, territoryService, namePromptService, customItems, buildingsConfig, nationService),
+            new ProclamationListener(mainThread, messages, pluginConfig, territoryService, namePromptService, customItems, buildingsConfig, nationService),
             this
         );
         getServer().getPluginManager().registerEvents(
-            new BuildingPlaceListener(this, messages, buildingService, customItems, buildingsConfig),
+            new BuildingPlaceListener(mainThread, messages, buildingService, customItems, buildingsConfig),
             this
         );
         getServer().getPluginManager().registerEvents(
@@ -239,42 +349,170 @@ public final class NationSystem extends JavaPlugin {
             new StorageListener(storageService),
             this
         );
+        getServer().getPluginManager().registerEvents(
+            new PlayerSessionListener(nationService, getLogger()),
+            this
+        );
+        TerritoryPresenceListener presenceListener = new TerritoryPresenceListener(
+            messages,
+            pluginConfig,
+            territoryIndex,
+            territoryPresence,
+            directory
+        );
+        getServer().getPluginManager().registerEvents(presenceListener, this);
+        presenceListener.reconcile();
+        if (pluginConfig.protectionEnabled()) {
+            getServer().getPluginManager().registerEvents(
+                new TerritoryProtectionListener(messages, pluginConfig, territoryIndex, directory, warService),
+                this
+            );
+        }
+        getServer().getPluginManager().registerEvents(
+            new WarCombatListener(warConfig, territoryIndex, directory, warService),
+            this
+        );
+        if (pluginConfig.pvpEnabled()) {
+            getServer().getPluginManager().registerEvents(
+                new PvpListener(messages, pluginConfig, territoryIndex, directory, warService),
+                this
+            );
+        }
+        nationService.preloadOnline(
+            getServer().getOnlinePlayers().stream().map(org.bukkit.entity.Player::getUniqueId).toList()
+        );
 
-        NationSystemApiImpl api = new NationSystemApiImpl(nationService, warService);
+        NationSystemApiImpl api = new NationSystemApiImpl(nationService, warService, leaderboard);
         getServer().getServicesManager().register(kr.lunaf.nationSystem.api.NationSystemApi.class, api, this, org.bukkit.plugin.ServicePriority.Normal);
         SkriptBridge.setApi(api);
         new SkriptHook(this).register();
 
-        getServer().getScheduler().runTaskTimerAsynchronously(
-            this,
-            () -> territoryService.expirePendingTerritories(),
-            20L * 60,
-            20L * 60
+        Duration jitter = Duration.ofMillis(pluginConfig.jobJitterMillis());
+        jobScheduler.schedule(
+            "structure-refresh",
+            Duration.ofSeconds(30),
+            Duration.ofSeconds(30),
+            jitter,
+            () -> CompletableFuture.runAsync(structureService::refresh, backgroundExecutor)
         );
-        getServer().getScheduler().runTaskTimerAsynchronously(
-            this,
-            () -> buildingService.processBuildingCompletion(),
-            20L,
-            20L
+        jobScheduler.schedule(
+            "territory-expiry",
+            Duration.ofSeconds(pluginConfig.territoryExpiryReconcileSeconds()),
+            Duration.ofSeconds(pluginConfig.territoryExpiryReconcileSeconds()),
+            jitter,
+            territoryService::expirePendingTerritories
+        );
+        jobScheduler.schedule(
+            "counter-flush",
+            Duration.ofSeconds(pluginConfig.counterFlushSeconds()),
+            Duration.ofSeconds(pluginConfig.counterFlushSeconds()),
+            jitter,
+            counterStore::flush
+        );
+        jobScheduler.schedule(
+            "quest-flush",
+            Duration.ofSeconds(questsConfig.progressFlushSeconds()),
+            Duration.ofSeconds(questsConfig.progressFlushSeconds()),
+            jitter,
+            questService::flushProgress
         );
-        getServer().getScheduler().runTaskTimerAsynchronously(
+        jobScheduler.schedule(
+            "building-completion",
+            Duration.ofSeconds(pluginConfig.buildingReconcileSeconds()),
+            Duration.ofSeconds(pluginConfig.buildingReconcileSeconds()),
+            jitter,
+            buildingService::processBuildingCompletion
+        );
+        jobScheduler.schedule(
+            "war-matching",
+            Duration.ofSeconds(1),
+            Duration.ofSeconds(1),
+            Duration.ZERO,
+            () -> CompletableFuture.runAsync(warService::tickMatching, backgroundExecutor)
+        );
+        jobScheduler.schedule(
+            "war-checkpoint",
+            Duration.ofSeconds(warConfig.checkpointSeconds()),
+            Duration.ofSeconds(warConfig.checkpointSeconds()),
+            jitter,
+            warService::checkpoint
+        );
+        getServer().getScheduler().runTaskTimer(this, warService::renderBossBars, 1L, 1L);
+        getServer().getScheduler().runTaskTimer(this, presenceListener::reconcile, 20L, 20L);
+        getServer().getScheduler().runTaskTimer(
             this,
-            () -> {
-                warService.tickMatching();
-                warService.tickWars();
-            },
-            20L,
-            20L
+            () -> storageService.autosave(),
+            20L * pluginConfig.storageAutosaveSeconds(),
+            20L * pluginConfig.storageAutosaveSeconds()
         );
     }
 
     @Override
     public void onDisable() {
-        if (dbExecutor != null) {
-            dbExecutor.shutdownNow();
+        if (jobScheduler != null) {
+            jobScheduler.stop();
+        }
+        if (territoryService != null) {
+            territoryService.stopExpiryQueue();
+        }
+        if (warService != null) {
+            warService.stopEvents();
+        }
+        if (buildingService != null) {
+            buildingService.stopCompletionQueue();
+        }
+        if (blockEditService != null) {
+            blockEditService.stop();
+        }
+        if (questService != null) {
+            try {
+                questService.flushProgressNow();
+            } catch (RuntimeException e) {
+                getLogger().warning("Failed to flush quest progress: " + e.getMessage());
+            }
         }
+        if (storageService != null) {
+            try {
+                storageService.flushAll(10_000L);
+            } catch (RuntimeException e) {
+                getLogger().warning("Failed to flush nation storages: " + e.getMessage());
+            }
+        }
+        if (warService != null) {
+            try {
+                warService.checkpoint();
+                warService.flushWrites().get(5L, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                getLogger().warning("Failed to checkpoint wars: " + e.getMessage());
+            }
+        }
+        if (mainThread != null) {
+            mainThread.stop();
+        }
+        if (counterStore != null) {
+            counterStore.close();
+        }
+        shutdownExecutor(interactiveExecutor);
+        shutdownExecutor(backgroundExecutor);
+        shutdownExecutor(bulkExecutor);
         if (databaseManager != null) {
             databaseManager.close();
         }
     }
+
+    private void shutdownExecutor(WorkloadExecutor executor) {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5L, TimeUnit.SECONDS)) {
+                getLogger().warning("Executor " + executor.name() + " did not finish in time, dropping "
+                    + executor.shutdownNow().size() + " queued tasks");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
 }
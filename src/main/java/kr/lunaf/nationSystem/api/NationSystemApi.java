@@ -1,8 +1,11 @@
 package kr.lunaf.nationSystem.api;
 
+import kr.lunaf.nationSystem.domain.LeaderboardMetric;
 import kr.lunaf.nationSystem.domain.NationMembership;
+import kr.lunaf.nationSystem.domain.NationStanding;
 import kr.lunaf.nationSystem.domain.WarState;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -20,5 +23,11 @@ public interface NationSystemApi {
 
     void sendNationMessage(long nationId, String message);
 
+    int getOnlineMemberCount(long nationId);
+
     CompletableFuture<Boolean> enqueueWar(UUID playerUuid);
+
+    Optional<NationStanding> getStanding(long nationId, LeaderboardMetric metric);
+
+    List<NationStanding> getTopNations(LeaderboardMetric metric, int offset, int limit);
 }
@@ -1,10 +1,14 @@
 package kr.lunaf.nationSystem.api;
 
+import kr.lunaf.nationSystem.domain.LeaderboardMetric;
 import kr.lunaf.nationSystem.domain.NationMembership;
+import kr.lunaf.nationSystem.domain.NationStanding;
 import kr.lunaf.nationSystem.domain.WarState;
+import kr.lunaf.nationSystem.service.LeaderboardService;
 import kr.lunaf.nationSystem.service.NationService;
 import kr.lunaf.nationSystem.service.WarService;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -12,10 +16,12 @@ import java.util.concurrent.CompletableFuture;
 public class NationSystemApiImpl implements NationSystemApi {
     private final NationService nationService;
     private final WarService warService;
+    private final LeaderboardService leaderboard;
 
-    public NationSystemApiImpl(NationService nationService, WarService warService) {
+    public NationSystemApiImpl(NationService nationService, WarService warService, LeaderboardService leaderboard) {
         this.nationService = nationService;
         this.warService = warService;
+        this.leaderboard = leaderboard;
     }
 
     @Override
@@ -56,8 +62,23 @@ public class NationSystemApiImpl implements NationSystemApi {
         nationService.sendNationMessage(nationId, message);
     }
 
+    @Override
+    public int getOnlineMemberCount(long nationId) {
+        return nationService.getOnlineMemberCount(nationId);
+    }
+
     @Override
     public CompletableFuture<Boolean> enqueueWar(UUID playerUuid) {
         return warService.enqueue(playerUuid).thenApply(WarService.ServiceResult::isSuccess);
     }
+
+    @Override
+    public Optional<NationStanding> getStanding(long nationId, LeaderboardMetric metric) {
+        return leaderboard.standing(metric, nationId);
+    }
+
+    @Override
+    public List<NationStanding> getTopNations(LeaderboardMetric metric, int offset, int limit) {
+        return leaderboard.top(metric, offset, limit);
+    }
 }
@@ -0,0 +1,34 @@
+package kr.lunaf.nationSystem.api.event;
+
+import kr.lunaf.nationSystem.domain.NationTerritory;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+public class TerritoryEnterEvent extends PlayerEvent {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final NationTerritory territory;
+
+    public TerritoryEnterEvent(Player player, NationTerritory territory) {
+        super(player);
+        this.territory = territory;
+    }
+
+    public NationTerritory getTerritory() {
+        return territory;
+    }
+
+    public long getNationId() {
+        return territory.nationId();
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
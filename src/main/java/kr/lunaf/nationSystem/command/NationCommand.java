@@ -6,8 +6,12 @@ import kr.lunaf.nationSystem.domain.NationMembership;
 import kr.lunaf.nationSystem.config.BuildingsConfig;
 import kr.lunaf.nationSystem.domain.BuildingDefinition;
 import kr.lunaf.nationSystem.domain.BuildingType;
+import kr.lunaf.nationSystem.domain.LeaderboardMetric;
+import kr.lunaf.nationSystem.domain.NationStanding;
 import kr.lunaf.nationSystem.domain.NationTerritory;
 import kr.lunaf.nationSystem.service.BankService;
+import kr.lunaf.nationSystem.service.LeaderboardService;
+import kr.lunaf.nationSystem.service.NationDirectory;
 import kr.lunaf.nationSystem.service.NationService;
 import kr.lunaf.nationSystem.service.NationLevelService;
 import kr.lunaf.nationSystem.service.PresentService;
@@ -17,12 +21,14 @@ import kr.lunaf.nationSystem.service.StorageService;
 import kr.lunaf.nationSystem.service.TerritoryService;
 import kr.lunaf.nationSystem.service.WarService;
 import kr.lunaf.nationSystem.util.CustomItems;
+import kr.lunaf.nationSystem.util.JobScheduler;
+import kr.lunaf.nationSystem.util.MainThreadExecutor;
+import kr.lunaf.nationSystem.util.WorkloadExecutor;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabExecutor;
 import org.bukkit.entity.Player;
-import org.bukkit.plugin.Plugin;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
@@ -30,9 +36,10 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 public class NationCommand implements TabExecutor {
-    private final Plugin plugin;
+    private final MainThreadExecutor mainThread;
     private final Messages messages;
     private final NationService nationService;
     private final PluginConfig pluginConfig;
@@ -46,9 +53,13 @@ public class NationCommand implements TabExecutor {
     private final TerritoryService territoryService;
     private final StorageService storageService;
     private final PresentService presentService;
+    private final NationDirectory directory;
+    private final LeaderboardService leaderboard;
+    private final List<WorkloadExecutor> workloadExecutors;
+    private final JobScheduler jobScheduler;
 
     public NationCommand(
-        Plugin plugin,
+        MainThreadExecutor mainThread,
         Messages messages,
         NationService nationService,
         PluginConfig pluginConfig,
@@ -61,9 +72,13 @@ public class NationCommand implements TabExecutor {
         NationLevelService levelService,
         TerritoryService territoryService,
         StorageService storageService,
-        PresentService presentService
+        PresentService presentService,
+        NationDirectory directory,
+        LeaderboardService leaderboard,
+        List<WorkloadExecutor> workloadExecutors,
+        JobScheduler jobScheduler
     ) {
-        this.plugin = plugin;
+        this.mainThread = mainThread;
         this.messages = messages;
         this.nationService = nationService;
         this.pluginConfig = pluginConfig;
@@ -77,6 +92,10 @@ public class NationCommand implements TabExecutor {
         this.territoryService = territoryService;
         this.storageService = storageService;
         this.presentService = presentService;
+        this.directory = directory;
+        this.leaderboard = leaderboard;
+        this.workloadExecutors = workloadExecutors;
+        this.jobScheduler = jobScheduler;
     }
 
     @Override
@@ -89,6 +108,15 @@ public class NationCommand implements TabExecutor {
             messages.sendList(sender, "info.help");
             return true;
         }
+        try {
+            dispatch(player, args);
+        } catch (RejectedExecutionException e) {
+            messages.send(player, "error.server-busy");
+        }
+        return true;
+    }
+
+    private void dispatch(Player player, String[] args) {
         String sub = args[0].toLowerCase(Locale.ROOT);
         switch (sub) {
             case "create", "생성" -> handleCreate(player, args);
@@ -100,16 +128,18 @@ public class NationCommand implements TabExecutor {
             case "leave", "탈퇴" -> handleLeave(player);
             case "move", "이동" -> handleMove(player, args);
             case "chat", "채팅" -> handleChat(player);
+            case "pvp" -> handlePvp(player);
             case "levelup", "레벨업" -> handleLevelUp(player);
             case "quest", "퀘스트" -> handleQuest(player, args);
             case "shop", "상점" -> handleShop(player, args);
             case "war", "전쟁" -> handleWar(player, args);
+            case "top", "순위" -> handleTop(player, args);
             case "storage", "창고" -> handleStorage(player);
             case "present", "선물" -> handlePresent(player);
             case "giveitem" -> handleGiveItem(player, args);
-            default -> messages.sendList(sender, "info.help");
+            case "admin", "관리" -> handleAdmin(player, args);
+            default -> messages.sendList(player, "info.help");
         }
-        return true;
     }
 
     private void handleCreate(Player player, String[] args) {
@@ -128,7 +158,7 @@ public class NationCommand implements TabExecutor {
         }
         CompletableFuture<NationService.ServiceResult<NationMembership>> future =
             nationService.createNation(player.getUniqueId(), name);
-        future.whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+        future.whenComplete((result, throwable) -> mainThread.execute(() -> {
             if (throwable != null || result == null) {
                 messages.send(player, "error.unknown");
                 return;
@@ -147,16 +177,16 @@ public class NationCommand implements TabExecutor {
     private void handleInfo(Player player) {
         nationService.getMembership(player.getUniqueId()).whenComplete((result, throwable) -> {
             if (throwable != null || result == null) {
-                Bukkit.getScheduler().runTask(plugin, () -> messages.send(player, "error.unknown"));
+                mainThread.execute(() -> messages.send(player, "error.unknown"));
                 return;
             }
             if (!result.isSuccess()) {
-                Bukkit.getScheduler().runTask(plugin, () -> messages.send(player, "error.not-in-nation"));
+                mainThread.execute(() -> messages.send(player, "error.not-in-nation"));
                 return;
             }
             NationMembership membership = result.data();
             nationService.getMemberCountAsync(membership.nationId()).whenComplete((count, countErr) ->
-                Bukkit.getScheduler().runTask(plugin, () -> {
+                mainThread.execute(() -> {
                     if (countErr != null) {
                         messages.send(player, "error.unknown");
                         return;
@@ -191,7 +221,7 @@ public class NationCommand implements TabExecutor {
                     return;
                 }
                 bankService.deposit(player.getUniqueId(), amount)
-                    .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                    .whenComplete((result, throwable) -> mainThread.execute(() -> {
                         if (throwable != null || result == null) {
                             messages.send(player, "error.unknown");
                             return;
@@ -209,7 +239,7 @@ public class NationCommand implements TabExecutor {
             }
             if (action.equals("history") || action.equals("기록")) {
                 bankService.getHistory(player.getUniqueId(), 10)
-                    .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                    .whenComplete((result, throwable) -> mainThread.execute(() -> {
                         if (throwable != null || result == null) {
                             messages.send(player, "error.unknown");
                             return;
@@ -235,7 +265,7 @@ public class NationCommand implements TabExecutor {
             }
         }
         bankService.getBalance(player.getUniqueId())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -262,7 +292,7 @@ public class NationCommand implements TabExecutor {
             return;
         }
         nationService.invite(player.getUniqueId(), target.getUniqueId())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -284,7 +314,7 @@ public class NationCommand implements TabExecutor {
 
     private void handleAccept(Player player) {
         nationService.acceptInvite(player.getUniqueId())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -301,7 +331,7 @@ public class NationCommand implements TabExecutor {
 
     private void handleDecline(Player player) {
         nationService.declineInvite(player.getUniqueId())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -316,7 +346,7 @@ public class NationCommand implements TabExecutor {
 
     private void handleLeave(Player player) {
         nationService.leave(player.getUniqueId())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -332,7 +362,7 @@ public class NationCommand implements TabExecutor {
 
     private void handleChat(Player player) {
         nationService.toggleChat(player.getUniqueId())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -351,7 +381,7 @@ public class NationCommand implements TabExecutor {
 
     private void handleMove(Player player, String[] args) {
         territoryService.listTerritories(player.getUniqueId())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -408,9 +438,76 @@ public class NationCommand implements TabExecutor {
             }));
     }
 
+    private void handlePvp(Player player) {
+        nationService.togglePvp(player.getUniqueId())
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
+                if (throwable != null || result == null) {
+                    messages.send(player, "error.unknown");
+                    return;
+                }
+                switch (result.status()) {
+                    case SUCCESS -> messages.send(player, result.data() ? "info.pvp-on" : "info.pvp-off");
+                    case OWNER_ONLY -> messages.send(player, "error.owner-only");
+                    case NOT_IN_NATION -> messages.send(player, "error.not-in-nation");
+                    default -> messages.send(player, "error.unknown");
+                }
+            }));
+    }
+
+    private void handleTop(Player player, String[] args) {
+        LeaderboardMetric metric = LeaderboardMetric.SCORE;
+        int page = 1;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i].toLowerCase(Locale.ROOT)) {
+                case "score", "점수" -> metric = LeaderboardMetric.SCORE;
+                case "level", "레벨" -> metric = LeaderboardMetric.LEVEL;
+                case "exp", "경험치" -> metric = LeaderboardMetric.EXP;
+                default -> {
+                    try {
+                        page = Integer.parseInt(args[i]);
+                    } catch (NumberFormatException e) {
+                        messages.send(player, "error.invalid-args");
+                        return;
+                    }
+                }
+            }
+        }
+        int total = leaderboard.size(metric);
+        if (total == 0) {
+            messages.send(player, "info.top-empty");
+            return;
+        }
+        int pageSize = pluginConfig.leaderboardPageSize();
+        int pages = (total + pageSize - 1) / pageSize;
+        if (page < 1 || page > pages) {
+            messages.send(player, "error.invalid-args");
+            return;
+        }
+        String metricName = messages.getString("info.top-metric-" + metric.name().toLowerCase(Locale.ROOT));
+        messages.send(player, "info.top-header", Map.of(
+            "metric", metricName,
+            "page", String.valueOf(page),
+            "pages", String.valueOf(pages)
+        ));
+        for (NationStanding standing : leaderboard.top(metric, (page - 1) * pageSize, pageSize)) {
+            messages.send(player, "info.top-entry", Map.of(
+                "rank", String.valueOf(standing.rank()),
+                "name", standing.nationName(),
+                "value", String.valueOf(standing.value())
+            ));
+        }
+        NationMembership membership = nationService.getCachedMembership(player.getUniqueId());
+        if (membership != null) {
+            leaderboard.standing(metric, membership.nationId()).ifPresent(standing -> messages.send(player, "info.top-own", Map.of(
+                "rank", String.valueOf(standing.rank()),
+                "value", String.valueOf(standing.value())
+            )));
+        }
+    }
+
     private void handleLevelUp(Player player) {
         levelService.levelUp(player.getUniqueId())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -429,7 +526,7 @@ public class NationCommand implements TabExecutor {
 
     private void handleStorage(Player player) {
         storageService.openStorage(player.getUniqueId())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -438,6 +535,7 @@ public class NationCommand implements TabExecutor {
                     case SUCCESS -> player.openInventory(result.data());
                     case NOT_IN_NATION -> messages.send(player, "error.not-in-nation");
                     case NO_STORAGE_BUILDING -> messages.send(player, "error.no-storage-building");
+                    case CORRUPTED -> messages.send(player, "error.storage-corrupted");
                     default -> messages.send(player, "error.unknown");
                 }
             }));
@@ -445,7 +543,7 @@ public class NationCommand implements TabExecutor {
 
     private void handlePresent(Player player) {
         presentService.claim(player.getUniqueId())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -479,7 +577,7 @@ public class NationCommand implements TabExecutor {
                 return;
             }
             questService.listDailyQuests(player.getUniqueId()).whenComplete((listResult, listErr) ->
-                Bukkit.getScheduler().runTask(plugin, () -> {
+                mainThread.execute(() -> {
                     if (listErr != null || listResult == null) {
                         messages.send(player, "error.quest-not-ready");
                         return;
@@ -511,7 +609,7 @@ public class NationCommand implements TabExecutor {
                             removeItem(player, mat, amount);
                             questService.deliverItems(player.getUniqueId(), questId, amount)
                                 .whenComplete((deliverResult, deliverErr) ->
-                                    Bukkit.getScheduler().runTask(plugin, () -> {
+                                    mainThread.execute(() -> {
                                         if (deliverErr != null || deliverResult == null) {
                                             messages.send(player, "error.unknown");
                                             return;
@@ -542,7 +640,7 @@ public class NationCommand implements TabExecutor {
         }
 
         questService.getOrCreateDailyQuests(player.getUniqueId())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -579,7 +677,7 @@ public class NationCommand implements TabExecutor {
             return;
         }
         shopService.buyBuildingItem(player, type)
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -615,7 +713,7 @@ public class NationCommand implements TabExecutor {
             return;
         }
         warService.enqueue(player.getUniqueId())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> mainThread.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -666,12 +764,94 @@ public class NationCommand implements TabExecutor {
         messages.send(player, "info.item-given", Map.of("player", target.getName()));
     }
 
+    private void handleAdmin(Player player, String[] args) {
+        if (!player.hasPermission("nations.admin.*")) {
+            messages.send(player, "error.no-permission");
+            return;
+        }
+        if (args.length < 2) {
+            messages.send(player, "error.invalid-args");
+            return;
+        }
+        switch (args[1].toLowerCase(Locale.ROOT)) {
+            case "cache" -> {
+                if (args.length >= 3 && args[2].equalsIgnoreCase("clear")) {
+                    directory.clear();
+                    nationService.preloadOnline(Bukkit.getOnlinePlayers().stream().map(Player::getUniqueId).toList());
+                    messages.send(player, "info.admin-cache-cleared");
+                    return;
+                }
+                NationDirectory.Stats stats = directory.stats();
+                messages.send(player, "info.admin-cache", Map.of(
+                    "hits", String.valueOf(stats.hits()),
+                    "misses", String.valueOf(stats.misses()),
+                    "ratio", String.format(Locale.ROOT, "%.1f", stats.hitRatio() * 100.0),
+                    "members", String.valueOf(stats.members()),
+                    "nations", String.valueOf(stats.nations()),
+                    "rosters", String.valueOf(stats.rosters()),
+                    "names", String.valueOf(stats.names())
+                ));
+            }
+            case "tasks" -> {
+                MainThreadExecutor.Stats stats = mainThread.stats();
+                messages.send(player, "info.admin-tasks", Map.of(
+                    "queued", String.valueOf(stats.queued()),
+                    "executed", String.valueOf(stats.executed()),
+                    "overflow", String.valueOf(stats.overflowTicks()),
+                    "last", formatMillis(stats.lastDrainNanos()),
+                    "max", formatMillis(stats.maxDrainNanos())
+                ));
+            }
+            case "executors" -> {
+                for (WorkloadExecutor workloadExecutor : workloadExecutors) {
+                    WorkloadExecutor.Stats stats = workloadExecutor.stats();
+                    messages.send(player, "info.admin-executor", Map.ofEntries(
+                        Map.entry("name", stats.name()),
+                        Map.entry("active", String.valueOf(stats.active())),
+                        Map.entry("concurrency", String.valueOf(stats.maxConcurrency())),
+                        Map.entry("queued", String.valueOf(stats.queued())),
+                        Map.entry("capacity", String.valueOf(stats.queueCapacity())),
+                        Map.entry("completed", String.valueOf(stats.completed())),
+                        Map.entry("failed", String.valueOf(stats.failed())),
+                        Map.entry("rejected", String.valueOf(stats.rejected())),
+                        Map.entry("avg", formatMillis(stats.averageWaitNanos())),
+                        Map.entry("max", formatMillis(stats.maxWaitNanos()))
+                    ));
+                }
+            }
+            case "jobs" -> {
+                for (JobScheduler.Stats stats : jobScheduler.stats()) {
+                    messages.send(player, "info.admin-job", Map.ofEntries(
+                        Map.entry("name", stats.name()),
+                        Map.entry("period", String.valueOf(stats.periodMillis() / 1000L)),
+                        Map.entry("state", messages.getString(stats.running() ? "info.admin-job-running" : "info.admin-job-idle")),
+                        Map.entry("runs", String.valueOf(stats.runs())),
+                        Map.entry("failures", String.valueOf(stats.failures())),
+                        Map.entry("skipped", String.valueOf(stats.skipped())),
+                        Map.entry("coalesced", String.valueOf(stats.coalesced())),
+                        Map.entry("last", formatMillis(stats.lastDurationNanos())),
+                        Map.entry("max", formatMillis(stats.maxDurationNanos())),
+                        Map.entry("lag", formatMillis(stats.lastLagNanos()))
+                    ));
+                    if (stats.lastError() != null) {
+                        messages.send(player, "info.admin-job-error", Map.of("error", stats.lastError()));
+                    }
+                }
+            }
+            default -> messages.send(player, "error.invalid-args");
+        }
+    }
+
+    private String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
             List<String> subs = List.of(
-                "create", "info", "bank", "invite", "accept", "decline", "leave", "move", "chat",
-                "levelup", "quest", "shop", "war", "storage", "present", "giveitem"
+                "create", "info", "bank", "invite", "accept", "decline", "leave", "move", "chat", "pvp",
+                "levelup", "quest", "shop", "war", "top", "storage", "present", "giveitem", "admin"
             );
             String prefix = args[0].toLowerCase(Locale.ROOT);
             List<String> out = new ArrayList<>();
@@ -703,6 +883,15 @@ public class NationCommand implements TabExecutor {
         if (args.length == 2 && args[0].equalsIgnoreCase("war")) {
             return List.of("toggle");
         }
+        if (args.length == 2 && args[0].equalsIgnoreCase("top")) {
+            return List.of("score", "level", "exp");
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("admin")) {
+            return List.of("cache", "tasks", "executors", "jobs");
+        }
+        if (args.length == 3 && args[0].equalsIgnoreCase("admin") && args[1].equalsIgnoreCase("cache")) {
+            return List.of("clear");
+        }
         if (args.length == 3 && args[0].equalsIgnoreCase("shop") && args[1].equalsIgnoreCase("buy")) {
             List<String> types = new ArrayList<>();
             for (BuildingType type : BuildingType.values()) {
@@ -1,11 +1,13 @@
 package kr.lunaf.nationSystem.config;
 
+import kr.lunaf.nationSystem.domain.NationRole;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.regex.Pattern;
 
 public class PluginConfig {
@@ -38,7 +40,7 @@ public class PluginConfig {
             config.getString("database.name", "nationsystem"),
             config.getString("database.user", "root"),
             config.getString("database.password", ""),
-            config.getInt("database.pool-size", 10),
+            Math.max(3, config.getInt("database.pool-size", 10)),
             config.getBoolean("database.use-ssl", false)
         );
     }
@@ -121,6 +123,10 @@ public class PluginConfig {
         return config.getInt("territory.wall-expire-minutes", 60);
     }
 
+    public long territoryExpiryReconcileSeconds() {
+        return Math.max(10L, config.getLong("territory.expiry-reconcile-seconds", 300L));
+    }
+
     public int maxTerritoriesPerNation() {
         return config.getInt("territory.max-per-nation", 1);
     }
@@ -133,14 +139,87 @@ public class PluginConfig {
         return config.getString("structures.center", "structures/build/center.nbt");
     }
 
+    public long mainThreadTickBudgetMillis() {
+        return Math.max(1L, config.getLong("main-thread.tick-budget-ms", 5L));
+    }
+
+    public int interactiveQueueCapacity() {
+        return Math.max(16, config.getInt("executors.interactive-queue", 512));
+    }
+
+    public int backgroundQueueCapacity() {
+        return Math.max(16, config.getInt("executors.background-queue", 256));
+    }
+
+    public int bulkQueueCapacity() {
+        return Math.max(4, config.getInt("executors.bulk-queue", 32));
+    }
+
+    public int backgroundConcurrency() {
+        return Math.max(1, config.getInt("executors.background-concurrency", 2));
+    }
+
+    public boolean protectionEnabled() {
+        return config.getBoolean("protection.enabled", true);
+    }
+
+    public NationRole protectionBuildRole() {
+        String value = config.getString("protection.build-role", "MEMBER");
+        try {
+            return NationRole.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return NationRole.MEMBER;
+        }
+    }
+
+    public boolean protectionWarRaids() {
+        return config.getBoolean("protection.war-raids", true);
+    }
+
+    public boolean pvpEnabled() {
+        return config.getBoolean("pvp.enabled", true);
+    }
+
+    public boolean pvpTerritoryRules() {
+        return config.getBoolean("pvp.territory-rules", true);
+    }
+
+    public int leaderboardPageSize() {
+        return Math.max(1, config.getInt("leaderboard.page-size", 10));
+    }
+
+    public boolean presenceTitles() {
+        return config.getBoolean("presence.titles", true);
+    }
+
+    public long jobJitterMillis() {
+        return Math.max(0L, config.getLong("jobs.jitter-ms", 500L));
+    }
+
+    public long blockEditTickBudgetMillis() {
+        return Math.max(1L, config.getLong("block-edit.tick-budget-ms", 8L));
+    }
+
+    public long counterFlushSeconds() {
+        return Math.max(1L, config.getLong("counters.flush-seconds", 10L));
+    }
+
     public int buildingMinSpacing() {
         return config.getInt("building.min-spacing", 21);
     }
 
+    public long buildingReconcileSeconds() {
+        return Math.max(10L, config.getLong("building.reconcile-seconds", 300L));
+    }
+
     public int storageSize() {
         return config.getInt("storage.size", 54);
     }
 
+    public long storageAutosaveSeconds() {
+        return Math.max(5L, config.getLong("storage.autosave-seconds", 30L));
+    }
+
     public int presentCooldownHours() {
         return config.getInt("present.cooldown-hours", 20);
     }
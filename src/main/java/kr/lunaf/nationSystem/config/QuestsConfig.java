@@ -34,4 +34,8 @@ public class QuestsConfig {
     public int rewardMaxExp() {
         return config.getInt("quests.daily.reward-exp-max", 70);
     }
+
+    public int progressFlushSeconds() {
+        return Math.max(1, config.getInt("quests.progress-flush-seconds", 5));
+    }
 }
@@ -12,6 +12,7 @@ import java.util.List;
 public class WarConfig {
     private final JavaPlugin plugin;
     private FileConfiguration config;
+    private List<MatchThreshold> matchThresholds;
 
     public WarConfig(JavaPlugin plugin) {
         this.plugin = plugin;
@@ -24,6 +25,7 @@ public class WarConfig {
             plugin.saveResource("war.yml", false);
         }
         this.config = YamlConfiguration.loadConfiguration(file);
+        this.matchThresholds = List.copyOf(parseMatchThresholds());
     }
 
     public boolean matchOpen() {
@@ -38,7 +40,31 @@ public class WarConfig {
         return config.getInt("war.battle-seconds", 1800);
     }
 
+    public int checkpointSeconds() {
+        return Math.max(5, config.getInt("war.checkpoint-seconds", 30));
+    }
+
+    public int killScore() {
+        return Math.max(0, config.getInt("war.score.kill", 10));
+    }
+
+    public int coreDamageScore() {
+        return Math.max(0, config.getInt("war.score.core-damage", 1));
+    }
+
+    public int winScore() {
+        return Math.max(0, config.getInt("war.score.win", 50));
+    }
+
+    public int coreRadius() {
+        return Math.max(0, config.getInt("war.score.core-radius", 4));
+    }
+
     public List<MatchThreshold> matchThresholds() {
+        return matchThresholds;
+    }
+
+    private List<MatchThreshold> parseMatchThresholds() {
         List<MatchThreshold> thresholds = new ArrayList<>();
         List<?> list = config.getList("war.match-thresholds");
         if (list == null) {
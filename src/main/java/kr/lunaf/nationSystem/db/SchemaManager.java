@@ -1,10 +1,102 @@
 package kr.lunaf.nationSystem.db;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class SchemaManager {
+    private static final List<Migration> MIGRATIONS = List.of(
+        new Migration(1, "index nation_members by player", List.of(
+            "ALTER TABLE nation_members ADD INDEX idx_member_player (player_uuid, nation_id, role)"
+        )),
+        new Migration(2, "case-insensitive nation names", List.of(
+            "ALTER TABLE nations MODIFY name VARCHAR(16) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci NOT NULL"
+        )),
+        new Migration(3, "index territory wall expiry", List.of(
+            "ALTER TABLE nation_territories ADD INDEX idx_territory_wall (wall_status, wall_expires_at)"
+        )),
+        new Migration(4, "binary nation storage column", List.of(
+            "ALTER TABLE nation_storage ADD COLUMN contents_blob MEDIUMBLOB NULL AFTER contents"
+        )),
+        new Migration(5, "durable war and match queue state", List.of(
+            "CREATE TABLE IF NOT EXISTS nation_wars (" +
+                "nation_a BIGINT PRIMARY KEY," +
+                "nation_b BIGINT NOT NULL," +
+                "phase VARCHAR(16) NOT NULL," +
+                "battle_at TIMESTAMP(3) NOT NULL," +
+                "ends_at TIMESTAMP(3) NOT NULL," +
+                "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP," +
+                "UNIQUE KEY uk_war_nation_b (nation_b)" +
+            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4",
+            "CREATE TABLE IF NOT EXISTS war_queue (" +
+                "nation_id BIGINT PRIMARY KEY," +
+                "nation_level INT NOT NULL," +
+                "enqueued_at TIMESTAMP(3) NOT NULL," +
+                "INDEX idx_war_queue_enqueued (enqueued_at)" +
+            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"
+        )),
+        new Migration(6, "war combat tallies", List.of(
+            "ALTER TABLE nation_wars " +
+                "ADD COLUMN kills_a INT NOT NULL DEFAULT 0 AFTER ends_at," +
+                "ADD COLUMN kills_b INT NOT NULL DEFAULT 0 AFTER kills_a," +
+                "ADD COLUMN core_damage_a INT NOT NULL DEFAULT 0 AFTER kills_b," +
+                "ADD COLUMN core_damage_b INT NOT NULL DEFAULT 0 AFTER core_damage_a"
+        )),
+        new Migration(7, "war results", List.of(
+            "CREATE TABLE IF NOT EXISTS nation_war_results (" +
+                "id BIGINT AUTO_INCREMENT PRIMARY KEY," +
+                "nation_a BIGINT NOT NULL," +
+                "nation_b BIGINT NOT NULL," +
+                "winner_id BIGINT NULL," +
+                "score_a INT NOT NULL," +
+                "score_b INT NOT NULL," +
+                "kills_a INT NOT NULL," +
+                "kills_b INT NOT NULL," +
+                "core_damage_a INT NOT NULL," +
+                "core_damage_b INT NOT NULL," +
+                "battle_at TIMESTAMP(3) NOT NULL," +
+                "ended_at TIMESTAMP(3) NOT NULL," +
+                "INDEX idx_war_result_a (nation_a, ended_at)," +
+                "INDEX idx_war_result_b (nation_b, ended_at)" +
+            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"
+        )),
+        new Migration(8, "war player stats", List.of(
+            "CREATE TABLE IF NOT EXISTS nation_war_player_stats (" +
+                "result_id BIGINT NOT NULL," +
+                "player_uuid CHAR(36) NOT NULL," +
+                "nation_id BIGINT NOT NULL," +
+                "kills INT NOT NULL," +
+                "deaths INT NOT NULL," +
+                "core_damage INT NOT NULL," +
+                "PRIMARY KEY (result_id, player_uuid)," +
+                "INDEX idx_war_player (player_uuid)" +
+            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"
+        )),
+        new Migration(9, "war player tally checkpoints", List.of(
+            "CREATE TABLE IF NOT EXISTS nation_war_player_tallies (" +
+                "nation_a BIGINT NOT NULL," +
+                "player_uuid CHAR(36) NOT NULL," +
+                "nation_id BIGINT NOT NULL," +
+                "kills INT NOT NULL," +
+                "deaths INT NOT NULL," +
+                "core_damage INT NOT NULL," +
+                "PRIMARY KEY (nation_a, player_uuid)" +
+            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"
+        )),
+        new Migration(10, "war placed block checkpoints", List.of(
+            "CREATE TABLE IF NOT EXISTS nation_war_placed_blocks (" +
+                "nation_a BIGINT NOT NULL," +
+                "block_key VARCHAR(128) NOT NULL," +
+                "PRIMARY KEY (nation_a, block_key)" +
+            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"
+        ))
+    );
+
     private final DatabaseManager databaseManager;
 
     public SchemaManager(DatabaseManager databaseManager) {
@@ -97,9 +189,19 @@ public class SchemaManager {
                 "nation_id BIGINT PRIMARY KEY," +
                 "last_claim_at TIMESTAMP NULL" +
             ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4",
+            "CREATE TABLE IF NOT EXISTS nation_counter_checkpoint (" +
+                "id TINYINT PRIMARY KEY," +
+                "last_sequence BIGINT NOT NULL" +
+            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4",
             "CREATE TABLE IF NOT EXISTS player_settings (" +
                 "player_uuid CHAR(36) PRIMARY KEY," +
                 "nation_chat_enabled TINYINT NOT NULL DEFAULT 0" +
+            ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4",
+            "CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INT PRIMARY KEY," +
+                "description VARCHAR(128) NOT NULL," +
+                "checksum CHAR(64) NOT NULL," +
+                "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP" +
             ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"
         );
 
@@ -112,5 +214,80 @@ public class SchemaManager {
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize schema", e);
         }
+        migrate();
+    }
+
+    private void migrate() {
+        Map<Integer, String> applied = appliedChecksums();
+        for (Migration migration : MIGRATIONS) {
+            String checksum = migration.checksum();
+            String recorded = applied.get(migration.version());
+            if (recorded != null) {
+                if (!recorded.equals(checksum)) {
+                    throw new IllegalStateException(
+                        "Schema migration " + migration.version() + " (" + migration.description() + ") was modified after it was applied"
+                    );
+                }
+                continue;
+            }
+            if (migration.version() == 2) {
+                requireCaseInsensitiveUniqueNames();
+            }
+            try (Connection connection = databaseManager.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    for (String sql : migration.statements()) {
+                        statement.execute(sql);
+                    }
+                }
+                try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO schema_version (version, description, checksum) VALUES (?, ?, ?)"
+                )) {
+                    statement.setInt(1, migration.version());
+                    statement.setString(2, migration.description());
+                    statement.setString(3, checksum);
+                    statement.executeUpdate();
+                }
+                connection.commit();
+            } catch (Exception e) {
+                throw new RuntimeException(
+                    "Failed to apply schema migration " + migration.version() + " (" + migration.description() + ")", e
+                );
+            }
+        }
+    }
+
+    private void requireCaseInsensitiveUniqueNames() {
+        List<String> conflicts = new ArrayList<>();
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT GROUP_CONCAT(name ORDER BY id SEPARATOR ', ') AS names FROM nations " +
+                     "GROUP BY name COLLATE utf8mb4_unicode_ci HAVING COUNT(*) > 1"
+             );
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                conflicts.add("[" + rs.getString("names") + "]");
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to check nation names for case-insensitive duplicates", e);
+        }
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException(
+                "Cannot make nation names case-insensitive: rename the nations that differ only by case first " + String.join(" ", conflicts)
+            );
+        }
+    }
+
+    private Map<Integer, String> appliedChecksums() {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT version, checksum FROM schema_version");
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getString("checksum"));
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read schema version", e);
+        }
+        return applied;
     }
 }
@@ -0,0 +1,7 @@
+package kr.lunaf.nationSystem.domain;
+
+public enum LeaderboardMetric {
+    SCORE,
+    LEVEL,
+    EXP
+}
@@ -0,0 +1,9 @@
+package kr.lunaf.nationSystem.domain;
+
+public record NationStanding(
+    int rank,
+    long nationId,
+    String nationName,
+    long value
+) {
+}
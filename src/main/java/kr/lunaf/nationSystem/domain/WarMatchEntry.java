@@ -3,6 +3,6 @@ package kr.lunaf.nationSystem.domain;
 public record WarMatchEntry(
     long nationId,
     int nationLevel,
-    int waitedSeconds
+    long enqueuedAtMillis
 ) {
 }
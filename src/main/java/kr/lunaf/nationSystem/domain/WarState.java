@@ -4,6 +4,14 @@ public record WarState(
     long nationA,
     long nationB,
     WarPhase phase,
-    int remainingSeconds
+    long battleAtMillis,
+    long endsAtMillis
 ) {
+    public int remainingSeconds() {
+        return (int) Math.max(0L, (endsAtMillis - System.currentTimeMillis() + 999L) / 1000L);
+    }
+
+    public WarState withPhase(WarPhase phase) {
+        return new WarState(nationA, nationB, phase, battleAtMillis, endsAtMillis);
+    }
 }
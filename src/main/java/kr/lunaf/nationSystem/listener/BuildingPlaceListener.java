@@ -6,7 +6,6 @@ import kr.lunaf.nationSystem.domain.Building;
 import kr.lunaf.nationSystem.domain.BuildingType;
 import kr.lunaf.nationSystem.service.BuildingService;
 import kr.lunaf.nationSystem.util.CustomItems;
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -14,25 +13,25 @@ import org.bukkit.event.block.Action;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.plugin.Plugin;
 
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 public class BuildingPlaceListener implements Listener {
-    private final Plugin plugin;
+    private final Executor syncExecutor;
     private final Messages messages;
     private final BuildingService buildingService;
     private final CustomItems customItems;
     private final BuildingsConfig buildingsConfig;
 
     public BuildingPlaceListener(
-        Plugin plugin,
+        Executor syncExecutor,
         Messages messages,
         BuildingService buildingService,
         CustomItems customItems,
         BuildingsConfig buildingsConfig
     ) {
-        this.plugin = plugin;
+        this.syncExecutor = syncExecutor;
         this.messages = messages;
         this.buildingService = buildingService;
         this.customItems = customItems;
@@ -56,7 +55,7 @@ public class BuildingPlaceListener implements Listener {
         Location base = event.getClickedBlock().getLocation();
         EquipmentSlot hand = event.getHand();
         buildingService.placeBuilding(event.getPlayer().getUniqueId(), base, type.get(), event.getPlayer().getFacing())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> syncExecutor.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(event.getPlayer(), "error.unknown");
                     return;
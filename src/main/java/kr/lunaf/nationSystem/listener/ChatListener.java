@@ -1,12 +1,21 @@
 package kr.lunaf.nationSystem.listener;
 
+import io.papermc.paper.event.player.AsyncChatEvent;
 import kr.lunaf.nationSystem.config.Messages;
 import kr.lunaf.nationSystem.config.PluginConfig;
+import kr.lunaf.nationSystem.domain.NationMembership;
 import kr.lunaf.nationSystem.service.NamePromptService;
 import kr.lunaf.nationSystem.service.NationService;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.AsyncPlayerChatEvent;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 public class ChatListener implements Listener {
     private final Messages messages;
@@ -22,45 +31,53 @@ public class ChatListener implements Listener {
     }
 
     @EventHandler
-    public void onChat(AsyncPlayerChatEvent event) {
-        if (namePromptService.isWaiting(event.getPlayer().getUniqueId())) {
+    public void onChat(AsyncChatEvent event) {
+        Player player = event.getPlayer();
+        UUID playerUuid = player.getUniqueId();
+        String plain = PlainTextComponentSerializer.plainText().serialize(event.message());
+        if (namePromptService.isWaiting(playerUuid)) {
             event.setCancelled(true);
-            String name = event.getMessage().trim();
-            if (name.contains(" ")) {
-                messages.send(event.getPlayer(), "error.invalid-name");
-                return;
-            }
-            if (name.length() < pluginConfig.nameMinLength() || name.length() > pluginConfig.nameMaxLength()) {
-                messages.send(event.getPlayer(), "error.invalid-name");
-                return;
-            }
-            if (!pluginConfig.namePattern().matcher(name).matches()) {
-                messages.send(event.getPlayer(), "error.invalid-name");
-                return;
-            }
-            boolean taken = nationService.isNameTaken(name).join();
-            if (taken) {
-                messages.send(event.getPlayer(), "error.name-taken");
+            handleNamePrompt(player, plain.trim());
+            return;
+        }
+        if (!nationService.isNationChatEnabled(playerUuid)) {
+            return;
+        }
+        NationMembership membership = nationService.getCachedMembership(playerUuid);
+        if (membership == null) {
+            if (nationService.isKnownWithoutNation(playerUuid)) {
+                nationService.clearNationChat(List.of(playerUuid));
                 return;
             }
-            namePromptService.setName(event.getPlayer().getUniqueId(), name);
-            messages.send(event.getPlayer(), "info.name-set", java.util.Map.of("name", name));
+            event.setCancelled(true);
+            nationService.sendNationChat(playerUuid, player.getName(), plain);
+            return;
+        }
+        Set<UUID> members = nationService.getOnlineMemberUuids(membership.nationId());
+        event.viewers().removeIf(viewer -> viewer instanceof Player target && !members.contains(target.getUniqueId()));
+        Component rendered = LegacyComponentSerializer.legacyAmpersand()
+            .deserialize(nationService.formatNationChat(player.getName(), plain));
+        event.renderer((source, sourceDisplayName, message, viewer) -> rendered);
+    }
+
+    private void handleNamePrompt(Player player, String name) {
+        if (name.contains(" ")) {
+            messages.send(player, "error.invalid-name");
             return;
         }
-        if (!nationService.isNationChatEnabled(event.getPlayer().getUniqueId())) {
+        if (name.length() < pluginConfig.nameMinLength() || name.length() > pluginConfig.nameMaxLength()) {
+            messages.send(player, "error.invalid-name");
             return;
         }
-        if (nationService.getCachedMembership(event.getPlayer().getUniqueId()) == null) {
-            nationService.getMembership(event.getPlayer().getUniqueId()).join();
+        if (!pluginConfig.namePattern().matcher(name).matches()) {
+            messages.send(player, "error.invalid-name");
+            return;
         }
-        if (nationService.getCachedMembership(event.getPlayer().getUniqueId()) == null) {
+        if (nationService.isNameTaken(name)) {
+            messages.send(player, "error.name-taken");
             return;
         }
-        event.setCancelled(true);
-        nationService.sendNationChat(
-            event.getPlayer().getUniqueId(),
-            event.getPlayer().getName(),
-            event.getMessage()
-        );
+        namePromptService.setName(player.getUniqueId(), name);
+        messages.send(player, "info.name-set", java.util.Map.of("name", name));
     }
 }
@@ -0,0 +1,43 @@
+package kr.lunaf.nationSystem.listener;
+
+import kr.lunaf.nationSystem.service.NationService;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.logging.Logger;
+
+public class PlayerSessionListener implements Listener {
+    private final NationService nationService;
+    private final Logger logger;
+
+    public PlayerSessionListener(NationService nationService, Logger logger) {
+        this.nationService = nationService;
+        this.logger = logger;
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        try {
+            nationService.preloadSession(event.getUniqueId());
+        } catch (RuntimeException e) {
+            logger.warning("Failed to preload session of " + event.getName() + ", loading on join instead: " + e.getMessage());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onJoin(PlayerJoinEvent event) {
+        nationService.handleJoin(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        nationService.handleQuit(event.getPlayer().getUniqueId());
+    }
+}
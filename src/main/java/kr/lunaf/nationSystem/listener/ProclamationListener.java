@@ -26,7 +26,6 @@ import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.plugin.Plugin;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,13 +33,14 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 public class ProclamationListener implements Listener {
     private static final String TITLE_RAW = "&f&l[ Proclamation of Nation ]";
     private static final String TITLE = ChatColor.translateAlternateColorCodes('&', TITLE_RAW);
     private static final String TITLE_STRIPPED = ChatColor.stripColor(TITLE);
 
-    private final Plugin plugin;
+    private final Executor syncExecutor;
     private final Messages messages;
     private final PluginConfig pluginConfig;
     private final TerritoryService territoryService;
@@ -51,7 +51,7 @@ public class ProclamationListener implements Listener {
     private final Map<UUID, PendingProclamation> pending = new ConcurrentHashMap<>();
 
     public ProclamationListener(
-        Plugin plugin,
+        Executor syncExecutor,
         Messages messages,
         PluginConfig pluginConfig,
         TerritoryService territoryService,
@@ -60,7 +60,7 @@ public class ProclamationListener implements Listener {
         BuildingsConfig buildingsConfig,
         NationService nationService
     ) {
-        this.plugin = plugin;
+        this.syncExecutor = syncExecutor;
         this.messages = messages;
         this.pluginConfig = pluginConfig;
         this.territoryService = territoryService;
@@ -114,7 +114,7 @@ public class ProclamationListener implements Listener {
         }
 
         nationService.getMembership(player.getUniqueId())
-            .whenComplete((membershipResult, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((membershipResult, throwable) -> syncExecutor.execute(() -> {
                 if (throwable != null || membershipResult == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -142,7 +142,7 @@ public class ProclamationListener implements Listener {
 
     private void handleCore(Player player, Location location, EquipmentSlot hand) {
         territoryService.buildWall(player.getUniqueId(), location)
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> syncExecutor.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -243,7 +243,7 @@ public class ProclamationListener implements Listener {
             return;
         }
         territoryService.createTerritory(player.getUniqueId(), pendingInfo.location(), pendingInfo.nationName())
-            .whenComplete((result, throwable) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            .whenComplete((result, throwable) -> syncExecutor.execute(() -> {
                 if (throwable != null || result == null) {
                     messages.send(player, "error.unknown");
                     return;
@@ -0,0 +1,138 @@
+package kr.lunaf.nationSystem.listener;
+
+import kr.lunaf.nationSystem.config.Messages;
+import kr.lunaf.nationSystem.config.PluginConfig;
+import kr.lunaf.nationSystem.domain.NationMember;
+import kr.lunaf.nationSystem.domain.NationTerritory;
+import kr.lunaf.nationSystem.domain.WarPhase;
+import kr.lunaf.nationSystem.domain.WarState;
+import kr.lunaf.nationSystem.service.NationDirectory;
+import kr.lunaf.nationSystem.service.TerritoryIndex;
+import kr.lunaf.nationSystem.service.WarService;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.AreaEffectCloud;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.entity.Tameable;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class PvpListener implements Listener {
+    private static final long WARN_INTERVAL_MILLIS = 1000L;
+
+    private final Messages messages;
+    private final TerritoryIndex territoryIndex;
+    private final NationDirectory directory;
+    private final WarService warService;
+    private final boolean territoryRules;
+    private final Map<UUID, Long> lastWarned = new ConcurrentHashMap<>();
+
+    public PvpListener(
+        Messages messages,
+        PluginConfig pluginConfig,
+        TerritoryIndex territoryIndex,
+        NationDirectory directory,
+        WarService warService
+    ) {
+        this.messages = messages;
+        this.territoryIndex = territoryIndex;
+        this.directory = directory;
+        this.warService = warService;
+        this.territoryRules = pluginConfig.pvpTerritoryRules();
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onDamage(EntityDamageByEntityEvent event) {
+        UUID victimUuid = playerBehind(event.getEntity());
+        if (victimUuid == null) {
+            return;
+        }
+        UUID attackerUuid = playerBehind(event.getDamager());
+        if (attackerUuid == null || attackerUuid.equals(victimUuid)) {
+            return;
+        }
+        String denial = denial(attackerUuid, victimUuid, event.getEntity().getLocation());
+        if (denial != null) {
+            event.setCancelled(true);
+            warn(attackerUuid, denial);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        lastWarned.remove(event.getPlayer().getUniqueId());
+    }
+
+    private String denial(UUID attackerUuid, UUID victimUuid, Location location) {
+        NationMember attacker = directory.cachedMemberOrLoad(attackerUuid);
+        NationMember victim = directory.cachedMemberOrLoad(victimUuid);
+        if (attacker != null && victim != null) {
+            if (attacker.nationId() == victim.nationId()) {
+                return directory.settings(attacker.nationId()).pvpEnabled() ? null : "error.pvp-friendly-fire";
+            }
+            if (isFighting(attacker.nationId(), victim.nationId())) {
+                return null;
+            }
+        }
+        if (!territoryRules) {
+            return null;
+        }
+        NationTerritory territory = territoryIndex.ownerAt(
+            location.getWorld().getName(),
+            location.getBlockX(),
+            location.getBlockZ()
+        );
+        if (territory == null || directory.settings(territory.nationId()).pvpEnabled()) {
+            return null;
+        }
+        return "error.pvp-territory";
+    }
+
+    private boolean isFighting(long attackerNationId, long victimNationId) {
+        Optional<WarState> war = warService.getWarState(attackerNationId);
+        if (war.isEmpty() || war.get().phase() != WarPhase.ACTIVE) {
+            return false;
+        }
+        return war.get().nationA() == victimNationId || war.get().nationB() == victimNationId;
+    }
+
+    private UUID playerBehind(Entity entity) {
+        if (entity instanceof Player player) {
+            return player.getUniqueId();
+        }
+        if (entity instanceof Tameable tameable) {
+            return tameable.isTamed() ? tameable.getOwnerUniqueId() : null;
+        }
+        if (entity instanceof Projectile projectile) {
+            return projectile.getShooter() instanceof Entity shooter ? playerBehind(shooter) : null;
+        }
+        if (entity instanceof AreaEffectCloud cloud) {
+            return cloud.getSource() instanceof Entity source ? playerBehind(source) : null;
+        }
+        return null;
+    }
+
+    private void warn(UUID playerUuid, String path) {
+        long now = System.currentTimeMillis();
+        Long previous = lastWarned.get(playerUuid);
+        if (previous != null && now - previous < WARN_INTERVAL_MILLIS) {
+            return;
+        }
+        Player player = Bukkit.getPlayer(playerUuid);
+        if (player == null) {
+            return;
+        }
+        lastWarned.put(playerUuid, now);
+        messages.send(player, path);
+    }
+}
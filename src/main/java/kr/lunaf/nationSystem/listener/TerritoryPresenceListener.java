@@ -0,0 +1,154 @@
+package kr.lunaf.nationSystem.listener;
+
+import kr.lunaf.nationSystem.api.event.TerritoryEnterEvent;
+import kr.lunaf.nationSystem.api.event.TerritoryLeaveEvent;
+import kr.lunaf.nationSystem.config.Messages;
+import kr.lunaf.nationSystem.config.PluginConfig;
+import kr.lunaf.nationSystem.domain.Nation;
+import kr.lunaf.nationSystem.domain.NationTerritory;
+import kr.lunaf.nationSystem.service.NationDirectory;
+import kr.lunaf.nationSystem.service.TerritoryIndex;
+import kr.lunaf.nationSystem.service.TerritoryPresence;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.title.Title;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+
+public class TerritoryPresenceListener implements Listener {
+    private final Messages messages;
+    private final TerritoryIndex territoryIndex;
+    private final TerritoryPresence presence;
+    private final NationDirectory directory;
+    private final boolean titles;
+    private long seenVersion = -1L;
+
+    public TerritoryPresenceListener(
+        Messages messages,
+        PluginConfig pluginConfig,
+        TerritoryIndex territoryIndex,
+        TerritoryPresence presence,
+        NationDirectory directory
+    ) {
+        this.messages = messages;
+        this.territoryIndex = territoryIndex;
+        this.presence = presence;
+        this.directory = directory;
+        this.titles = pluginConfig.presenceTitles();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent event) {
+        if (mayCrossBoundary(event.getFrom(), event.getTo())) {
+            track(event.getPlayer(), event.getTo());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onVehicleMove(VehicleMoveEvent event) {
+        if (!mayCrossBoundary(event.getFrom(), event.getTo())) {
+            return;
+        }
+        for (Entity passenger : event.getVehicle().getPassengers()) {
+            if (passenger instanceof Player player) {
+                track(player, event.getTo());
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(PlayerTeleportEvent event) {
+        track(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onRespawn(PlayerRespawnEvent event) {
+        track(event.getPlayer(), event.getRespawnLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        track(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        presence.remove(event.getPlayer().getUniqueId());
+    }
+
+    public void reconcile() {
+        long version = territoryIndex.version();
+        if (version == seenVersion) {
+            return;
+        }
+        seenVersion = version;
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            track(player, player.getLocation());
+        }
+    }
+
+    private boolean mayCrossBoundary(Location from, Location to) {
+        int toX = to.getBlockX();
+        int toZ = to.getBlockZ();
+        if (from.getBlockX() == toX && from.getBlockZ() == toZ) {
+            return false;
+        }
+        return from.getWorld() != to.getWorld()
+            || from.getBlockX() >> 4 != toX >> 4
+            || from.getBlockZ() >> 4 != toZ >> 4
+            || territoryIndex.isBoundaryChunk(to.getWorld().getName(), toX >> 4, toZ >> 4);
+    }
+
+    private void track(Player player, Location location) {
+        TerritoryPresence.Transition transition = presence.update(
+            player.getUniqueId(),
+            location.getWorld().getName(),
+            location.getBlockX(),
+            location.getBlockZ()
+        );
+        if (transition == null) {
+            return;
+        }
+        if (transition.left() != null) {
+            Bukkit.getPluginManager().callEvent(new TerritoryLeaveEvent(player, transition.left()));
+        }
+        if (transition.entered() != null) {
+            Bukkit.getPluginManager().callEvent(new TerritoryEnterEvent(player, transition.entered()));
+        }
+        if (titles) {
+            showTitle(player, transition);
+        }
+    }
+
+    private void showTitle(Player player, TerritoryPresence.Transition transition) {
+        NationTerritory entered = transition.entered();
+        if (entered != null) {
+            Nation nation = directory.cachedNation(entered.nationId());
+            String name = nation == null ? messages.getString("title.unknown-nation") : nation.name();
+            player.showTitle(Title.title(
+                legacy(messages.getString("title.territory-enter").replace("%nation%", name)),
+                legacy(messages.getString("title.territory-enter-subtitle"))
+            ));
+            return;
+        }
+        player.showTitle(Title.title(
+            legacy(messages.getString("title.territory-leave")),
+            legacy(messages.getString("title.territory-leave-subtitle"))
+        ));
+    }
+
+    private static Component legacy(String text) {
+        return LegacyComponentSerializer.legacyAmpersand().deserialize(text);
+    }
+}
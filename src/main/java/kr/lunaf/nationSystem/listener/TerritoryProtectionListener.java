@@ -0,0 +1,194 @@
+package kr.lunaf.nationSystem.listener;
+
+import kr.lunaf.nationSystem.config.Messages;
+import kr.lunaf.nationSystem.config.PluginConfig;
+import kr.lunaf.nationSystem.domain.NationMember;
+import kr.lunaf.nationSystem.domain.NationRole;
+import kr.lunaf.nationSystem.domain.NationTerritory;
+import kr.lunaf.nationSystem.domain.WarPhase;
+import kr.lunaf.nationSystem.domain.WarState;
+import kr.lunaf.nationSystem.service.NationDirectory;
+import kr.lunaf.nationSystem.service.TerritoryIndex;
+import kr.lunaf.nationSystem.service.WarService;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TerritoryProtectionListener implements Listener {
+    private static final long WARN_INTERVAL_MILLIS = 1000L;
+
+    private final Messages messages;
+    private final TerritoryIndex territoryIndex;
+    private final NationDirectory directory;
+    private final WarService warService;
+    private final NationRole buildRole;
+    private final boolean warRaids;
+    private final Map<UUID, Long> lastWarned = new ConcurrentHashMap<>();
+
+    public TerritoryProtectionListener(
+        Messages messages,
+        PluginConfig pluginConfig,
+        TerritoryIndex territoryIndex,
+        NationDirectory directory,
+        WarService warService
+    ) {
+        this.messages = messages;
+        this.territoryIndex = territoryIndex;
+        this.directory = directory;
+        this.warService = warService;
+        this.buildRole = pluginConfig.protectionBuildRole();
+        this.warRaids = pluginConfig.protectionWarRaids();
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBreak(BlockBreakEvent event) {
+        if (!canModify(event.getPlayer(), event.getBlock())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onPlace(BlockPlaceEvent event) {
+        if (!canModify(event.getPlayer(), event.getBlockPlaced())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBucketEmpty(PlayerBucketEmptyEvent event) {
+        if (!canModify(event.getPlayer(), event.getBlock())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBucketFill(PlayerBucketFillEvent event) {
+        if (!canModify(event.getPlayer(), event.getBlock())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW)
+    public void onInteract(PlayerInteractEvent event) {
+        Block block = event.getClickedBlock();
+        if (block == null || (event.getAction() != Action.RIGHT_CLICK_BLOCK && event.getAction() != Action.PHYSICAL)) {
+            return;
+        }
+        if (canModify(event.getPlayer(), block)) {
+            return;
+        }
+        if (event.getAction() == Action.PHYSICAL) {
+            event.setCancelled(true);
+        } else {
+            event.setUseInteractedBlock(Event.Result.DENY);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        filterExplosion(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        filterExplosion(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onFlow(BlockFromToEvent event) {
+        Block to = event.getToBlock();
+        NationTerritory target = territoryIndex.ownerAt(to.getWorld().getName(), to.getX(), to.getZ());
+        if (target == null) {
+            return;
+        }
+        Block from = event.getBlock();
+        NationTerritory source = territoryIndex.ownerAt(from.getWorld().getName(), from.getX(), from.getZ());
+        if (source == null || source.nationId() != target.nationId()) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        lastWarned.remove(event.getPlayer().getUniqueId());
+    }
+
+    private boolean canModify(Player player, Block block) {
+        NationTerritory territory = territoryIndex.ownerAt(block.getWorld().getName(), block.getX(), block.getZ());
+        if (territory == null) {
+            return true;
+        }
+        if (isAllowed(player, territory)) {
+            return true;
+        }
+        warn(player);
+        return false;
+    }
+
+    private boolean isAllowed(Player player, NationTerritory territory) {
+        NationMember member = directory.cachedMemberOrLoad(player.getUniqueId());
+        if (member != null) {
+            if (member.nationId() == territory.nationId()) {
+                return member.role().ordinal() <= buildRole.ordinal();
+            }
+            if (warRaids && isRaiding(member.nationId(), territory.nationId())) {
+                return true;
+            }
+        }
+        return player.hasPermission("nations.admin.*");
+    }
+
+    private boolean isRaiding(long attackerNationId, long defenderNationId) {
+        if (!warService.isInWar(defenderNationId)) {
+            return false;
+        }
+        Optional<WarState> war = warService.getWarState(attackerNationId);
+        if (war.isEmpty() || war.get().phase() != WarPhase.ACTIVE) {
+            return false;
+        }
+        return war.get().nationA() == defenderNationId || war.get().nationB() == defenderNationId;
+    }
+
+    private void filterExplosion(List<Block> blocks) {
+        blocks.removeIf(block -> {
+            NationTerritory territory = territoryIndex.ownerAt(block.getWorld().getName(), block.getX(), block.getZ());
+            if (territory == null) {
+                return false;
+            }
+            if (!warRaids) {
+                return true;
+            }
+            Optional<WarState> war = warService.getWarState(territory.nationId());
+            return war.isEmpty() || war.get().phase() != WarPhase.ACTIVE;
+        });
+    }
+
+    private void warn(Player player) {
+        long now = System.currentTimeMillis();
+        Long previous = lastWarned.get(player.getUniqueId());
+        if (previous != null && now - previous < WARN_INTERVAL_MILLIS) {
+            return;
+        }
+        lastWarned.put(player.getUniqueId(), now);
+        messages.send(player, "error.territory-protected");
+    }
+}
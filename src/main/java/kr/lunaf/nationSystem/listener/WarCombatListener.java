@@ -0,0 +1,108 @@
+package kr.lunaf.nationSystem.listener;
+
+import kr.lunaf.nationSystem.config.WarConfig;
+import kr.lunaf.nationSystem.domain.NationMember;
+import kr.lunaf.nationSystem.domain.NationTerritory;
+import kr.lunaf.nationSystem.service.NationDirectory;
+import kr.lunaf.nationSystem.service.TerritoryIndex;
+import kr.lunaf.nationSystem.service.WarService;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Tameable;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+
+import java.util.UUID;
+
+public class WarCombatListener implements Listener {
+    private final TerritoryIndex territoryIndex;
+    private final NationDirectory directory;
+    private final WarService warService;
+    private final int coreRadius;
+
+    public WarCombatListener(WarConfig warConfig, TerritoryIndex territoryIndex, NationDirectory directory, WarService warService) {
+        this.territoryIndex = territoryIndex;
+        this.directory = directory;
+        this.warService = warService;
+        this.coreRadius = warConfig.coreRadius();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent event) {
+        Player victim = event.getEntity();
+        NationMember victimMember = directory.cachedMemberOrLoad(victim.getUniqueId());
+        if (victimMember == null || !warService.isInWar(victimMember.nationId())) {
+            return;
+        }
+        UUID killerUuid = killerOf(victim);
+        if (killerUuid == null || killerUuid.equals(victim.getUniqueId())) {
+            return;
+        }
+        NationMember killerMember = directory.cachedMemberOrLoad(killerUuid);
+        if (killerMember == null) {
+            return;
+        }
+        warService.recordKill(killerUuid, killerMember.nationId(), victim.getUniqueId(), victimMember.nationId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlace(BlockPlaceEvent event) {
+        Block block = event.getBlock();
+        NationTerritory territory = coreTerritoryAt(block);
+        if (territory != null) {
+            warService.recordPlacement(territory.nationId(), blockKey(block));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBreak(BlockBreakEvent event) {
+        Block block = event.getBlock();
+        NationTerritory territory = coreTerritoryAt(block);
+        if (territory == null) {
+            return;
+        }
+        Player player = event.getPlayer();
+        NationMember member = directory.cachedMemberOrLoad(player.getUniqueId());
+        if (member == null) {
+            return;
+        }
+        warService.recordCoreDamage(player.getUniqueId(), member.nationId(), territory.nationId(), blockKey(block));
+    }
+
+    private NationTerritory coreTerritoryAt(Block block) {
+        NationTerritory territory = territoryIndex.ownerAt(block.getWorld().getName(), block.getX(), block.getZ());
+        if (territory == null || !warService.isInWar(territory.nationId())) {
+            return null;
+        }
+        if (Math.abs(block.getX() - territory.centerX()) > coreRadius || Math.abs(block.getZ() - territory.centerZ()) > coreRadius) {
+            return null;
+        }
+        return territory;
+    }
+
+    private String blockKey(Block block) {
+        return block.getWorld().getName() + ":" + block.getX() + ":" + block.getY() + ":" + block.getZ();
+    }
+
+    private UUID killerOf(Player victim) {
+        Player killer = victim.getKiller();
+        if (killer != null) {
+            return killer.getUniqueId();
+        }
+        EntityDamageEvent cause = victim.getLastDamageCause();
+        if (cause instanceof EntityDamageByEntityEvent byEntity) {
+            Entity damager = byEntity.getDamager();
+            if (damager instanceof Tameable tameable && tameable.isTamed()) {
+                return tameable.getOwnerUniqueId();
+            }
+        }
+        return null;
+    }
+}
@@ -31,6 +31,21 @@ public class BankHistoryRepository {
         }
     }
 
+    public void insertBatch(Connection connection, List<BankHistoryEntry> entries) throws Exception {
+        String sql = "INSERT INTO nation_bank_history (nation_id, action, amount, actor_uuid, created_at) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (BankHistoryEntry entry : entries) {
+                statement.setLong(1, entry.nationId());
+                statement.setString(2, entry.type().name());
+                statement.setLong(3, entry.amount());
+                statement.setString(4, entry.actorUuid().toString());
+                statement.setTimestamp(5, java.sql.Timestamp.from(entry.createdAt()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
     public List<BankHistoryEntry> listRecent(long nationId, int limit) {
         String sql = "SELECT * FROM nation_bank_history WHERE nation_id = ? ORDER BY created_at DESC LIMIT ?";
         List<BankHistoryEntry> entries = new ArrayList<>();
@@ -124,6 +124,33 @@ public class BuildingRepository {
         }
     }
 
+    public List<Building> listByState(BuildingState state) {
+        String sql = "SELECT * FROM nation_buildings WHERE state = ?";
+        List<Building> buildings = new ArrayList<>();
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, state.name());
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    buildings.add(mapBuilding(rs));
+                }
+            }
+            return buildings;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public boolean transitionState(Connection connection, long buildingId, BuildingState from, BuildingState to) throws Exception {
+        String sql = "UPDATE nation_buildings SET state = ?, build_complete_at = NULL WHERE id = ? AND state = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, to.name());
+            statement.setLong(2, buildingId);
+            statement.setString(3, from.name());
+            return statement.executeUpdate() > 0;
+        }
+    }
+
     public void updateState(Connection connection, long buildingId, BuildingState state, Instant buildCompleteAt) throws Exception {
         String sql = "UPDATE nation_buildings SET state = ?, build_complete_at = ? WHERE id = ?";
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
@@ -73,6 +73,22 @@ public class DailyQuestRepository {
         }
     }
 
+    public void updateProgressBatch(Connection connection, List<DailyQuest> quests) throws Exception {
+        String sql = "UPDATE nation_daily_quests SET progress_amount = ?, completed = ? " +
+            "WHERE nation_id = ? AND quest_id = ? AND quest_date = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (DailyQuest quest : quests) {
+                statement.setInt(1, quest.progressAmount());
+                statement.setInt(2, quest.completed() ? 1 : 0);
+                statement.setLong(3, quest.nationId());
+                statement.setInt(4, quest.type().id());
+                statement.setDate(5, java.sql.Date.valueOf(quest.questDate()));
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
     private DailyQuest mapQuest(ResultSet rs) throws Exception {
         int questId = rs.getInt("quest_id");
         DailyQuestType type = DailyQuestType.fromId(questId).orElseThrow();
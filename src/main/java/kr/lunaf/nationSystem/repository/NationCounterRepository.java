@@ -0,0 +1,56 @@
+package kr.lunaf.nationSystem.repository;
+
+import kr.lunaf.nationSystem.db.DatabaseManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+
+public class NationCounterRepository {
+    private final DatabaseManager databaseManager;
+
+    public NationCounterRepository(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    public long getCheckpoint() {
+        String sql = "SELECT last_sequence FROM nation_counter_checkpoint WHERE id = 1";
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+            return 0L;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void saveCheckpoint(Connection connection, long sequence) throws Exception {
+        String sql = "INSERT INTO nation_counter_checkpoint (id, last_sequence) VALUES (1, ?) " +
+            "ON DUPLICATE KEY UPDATE last_sequence = GREATEST(last_sequence, VALUES(last_sequence))";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, sequence);
+            statement.executeUpdate();
+        }
+    }
+
+    public void applyDeltas(Connection connection, Collection<CounterDelta> deltas) throws Exception {
+        String sql = "UPDATE nations SET exp = exp + ?, bank_balance = bank_balance + ?, score = score + ? WHERE id = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (CounterDelta delta : deltas) {
+                statement.setLong(1, delta.exp());
+                statement.setLong(2, delta.bankBalance());
+                statement.setLong(3, delta.score());
+                statement.setLong(4, delta.nationId());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public record CounterDelta(long nationId, long exp, long bankBalance, long score) {
+    }
+}
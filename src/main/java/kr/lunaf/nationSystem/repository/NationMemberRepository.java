@@ -8,6 +8,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -62,6 +63,28 @@ public class NationMemberRepository {
         }
     }
 
+    public List<UUID> listMemberUuids(Connection connection, Collection<Long> nationIds) throws Exception {
+        String sql = "SELECT player_uuid FROM nation_members WHERE nation_id IN (" + SqlLists.placeholders(nationIds.size()) + ")";
+        List<UUID> members = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            SqlLists.bindLongs(statement, 1, nationIds);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    members.add(UUID.fromString(rs.getString("player_uuid")));
+                }
+            }
+        }
+        return members;
+    }
+
+    public void deleteByNations(Connection connection, Collection<Long> nationIds) throws Exception {
+        String sql = "DELETE FROM nation_members WHERE nation_id IN (" + SqlLists.placeholders(nationIds.size()) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            SqlLists.bindLongs(statement, 1, nationIds);
+            statement.executeUpdate();
+        }
+    }
+
     public List<UUID> listMemberUuids(long nationId) {
         String sql = "SELECT player_uuid FROM nation_members WHERE nation_id = ?";
         List<UUID> members = new ArrayList<>();
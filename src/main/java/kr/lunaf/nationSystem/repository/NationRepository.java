@@ -7,6 +7,11 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -85,6 +90,36 @@ public class NationRepository {
         throw new IllegalStateException("No generated key for nation");
     }
 
+    public List<Nation> listAll() {
+        String sql = "SELECT id, name, owner_uuid, level, exp, bank_balance, score FROM nations";
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            List<Nation> nations = new ArrayList<>();
+            while (rs.next()) {
+                nations.add(mapNation(rs));
+            }
+            return nations;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Map<Long, String> listNames() {
+        String sql = "SELECT id, name FROM nations";
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            Map<Long, String> names = new HashMap<>();
+            while (rs.next()) {
+                names.put(rs.getLong("id"), rs.getString("name"));
+            }
+            return names;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public int countMembers(long nationId) {
         String sql = "SELECT COUNT(*) FROM nation_members WHERE nation_id = ?";
         try (Connection connection = databaseManager.getConnection();
@@ -109,44 +144,35 @@ public class NationRepository {
         }
     }
 
-    public void addExp(Connection connection, long nationId, long amount) throws Exception {
-        String sql = "UPDATE nations SET exp = exp + ? WHERE id = ?";
+    public List<Long> listNationsWithoutTerritories(Connection connection, Collection<Long> nationIds) throws Exception {
+        String sql = "SELECT n.id FROM nations n WHERE n.id IN (" + SqlLists.placeholders(nationIds.size()) + ") " +
+            "AND NOT EXISTS (SELECT 1 FROM nation_territories t WHERE t.nation_id = n.id)";
+        List<Long> ids = new ArrayList<>();
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, amount);
-            statement.setLong(2, nationId);
-            statement.executeUpdate();
-        }
-    }
-
-    public long getBankBalanceForUpdate(Connection connection, long nationId) throws Exception {
-        String sql = "SELECT bank_balance FROM nations WHERE id = ? FOR UPDATE";
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, nationId);
+            SqlLists.bindLongs(statement, 1, nationIds);
             try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getLong(1);
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
                 }
-                return 0L;
             }
         }
+        return ids;
     }
 
-    public void addBankBalance(Connection connection, long nationId, long amount) throws Exception {
-        String sql = "UPDATE nations SET bank_balance = bank_balance + ? WHERE id = ?";
+    public void deleteNations(Connection connection, Collection<Long> nationIds) throws Exception {
+        String sql = "DELETE FROM nations WHERE id IN (" + SqlLists.placeholders(nationIds.size()) + ")";
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, amount);
-            statement.setLong(2, nationId);
+            SqlLists.bindLongs(statement, 1, nationIds);
             statement.executeUpdate();
         }
     }
 
-    public void levelUpNation(Connection connection, long nationId, long expCost, long moneyCost) throws Exception {
-        String sql = "UPDATE nations SET level = level + 1, exp = exp - ?, bank_balance = bank_balance - ? WHERE id = ?";
+    public boolean incrementLevel(Connection connection, long nationId, int expectedLevel) throws Exception {
+        String sql = "UPDATE nations SET level = level + 1 WHERE id = ? AND level = ?";
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setLong(1, expCost);
-            statement.setLong(2, moneyCost);
-            statement.setLong(3, nationId);
-            statement.executeUpdate();
+            statement.setLong(1, nationId);
+            statement.setInt(2, expectedLevel);
+            return statement.executeUpdate() > 0;
         }
     }
 
@@ -6,6 +6,9 @@ import kr.lunaf.nationSystem.domain.NationSettings;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public class NationSettingsRepository {
@@ -44,6 +47,43 @@ public class NationSettingsRepository {
         }
     }
 
+    public List<NationSettings> listAll() {
+        String sql = "SELECT nation_id, pvp_enabled, invite_lock, chat_default FROM nation_settings";
+        List<NationSettings> settings = new ArrayList<>();
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                settings.add(new NationSettings(
+                    rs.getLong("nation_id"),
+                    rs.getInt("pvp_enabled") == 1,
+                    rs.getInt("invite_lock") == 1,
+                    rs.getInt("chat_default") == 1
+                ));
+            }
+            return settings;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void setPvpEnabled(Connection connection, long nationId, boolean enabled) throws Exception {
+        String sql = "UPDATE nation_settings SET pvp_enabled = ? WHERE nation_id = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, enabled ? 1 : 0);
+            statement.setLong(2, nationId);
+            statement.executeUpdate();
+        }
+    }
+
+    public void deleteByNations(Connection connection, Collection<Long> nationIds) throws Exception {
+        String sql = "DELETE FROM nation_settings WHERE nation_id IN (" + SqlLists.placeholders(nationIds.size()) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            SqlLists.bindLongs(statement, 1, nationIds);
+            statement.executeUpdate();
+        }
+    }
+
     public void deleteByNation(Connection connection, long nationId) throws Exception {
         String sql = "DELETE FROM nation_settings WHERE nation_id = ?";
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
@@ -14,14 +14,14 @@ public class NationStorageRepository {
         this.databaseManager = databaseManager;
     }
 
-    public Optional<String> loadStorage(long nationId) {
-        String sql = "SELECT contents FROM nation_storage WHERE nation_id = ?";
+    public Optional<StoredContents> loadStorage(long nationId) {
+        String sql = "SELECT contents, contents_blob FROM nation_storage WHERE nation_id = ?";
         try (Connection connection = databaseManager.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setLong(1, nationId);
             try (ResultSet rs = statement.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.ofNullable(rs.getString("contents"));
+                    return Optional.of(new StoredContents(rs.getBytes("contents_blob"), rs.getString("contents")));
                 }
                 return Optional.empty();
             }
@@ -30,13 +30,19 @@ public class NationStorageRepository {
         }
     }
 
-    public void saveStorage(Connection connection, long nationId, String contents) throws Exception {
-        String sql = "INSERT INTO nation_storage (nation_id, contents) VALUES (?, ?) " +
-            "ON DUPLICATE KEY UPDATE contents = VALUES(contents), updated_at = CURRENT_TIMESTAMP";
+    public void saveStorage(Connection connection, long nationId, byte[] contents) throws Exception {
+        String sql = "INSERT INTO nation_storage (nation_id, contents, contents_blob) VALUES (?, NULL, ?) " +
+            "ON DUPLICATE KEY UPDATE contents = NULL, contents_blob = VALUES(contents_blob), updated_at = CURRENT_TIMESTAMP";
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setLong(1, nationId);
-            statement.setString(2, contents);
+            statement.setBytes(2, contents);
             statement.executeUpdate();
         }
     }
+
+    public record StoredContents(byte[] binary, String legacy) {
+        public boolean isLegacy() {
+            return binary == null && legacy != null && !legacy.isBlank();
+        }
+    }
 }
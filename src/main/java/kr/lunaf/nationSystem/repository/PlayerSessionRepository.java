@@ -0,0 +1,90 @@
+package kr.lunaf.nationSystem.repository;
+
+import kr.lunaf.nationSystem.db.DatabaseManager;
+import kr.lunaf.nationSystem.domain.Nation;
+import kr.lunaf.nationSystem.domain.NationMember;
+import kr.lunaf.nationSystem.domain.NationRole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public class PlayerSessionRepository {
+    private static final String SELECT =
+        "SELECT p.player_uuid, m.nation_id, m.role, n.name, n.owner_uuid, n.level, n.exp, n.bank_balance, n.score, " +
+            "s.nation_chat_enabled FROM (%s) p " +
+            "LEFT JOIN nation_members m ON m.player_uuid = p.player_uuid " +
+            "LEFT JOIN nations n ON n.id = m.nation_id " +
+            "LEFT JOIN player_settings s ON s.player_uuid = p.player_uuid";
+
+    private final DatabaseManager databaseManager;
+
+    public PlayerSessionRepository(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    public PlayerSession load(UUID playerUuid) {
+        List<PlayerSession> sessions = loadAll(List.of(playerUuid));
+        return sessions.isEmpty() ? PlayerSession.empty(playerUuid) : sessions.get(0);
+    }
+
+    public List<PlayerSession> loadAll(Collection<UUID> playerUuids) {
+        if (playerUuids.isEmpty()) {
+            return List.of();
+        }
+        String players = String.join(" UNION ALL ", Collections.nCopies(playerUuids.size(), "SELECT ? AS player_uuid"));
+        String sql = String.format(SELECT, players);
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (UUID playerUuid : playerUuids) {
+                statement.setString(index++, playerUuid.toString());
+            }
+            List<PlayerSession> sessions = new ArrayList<>(playerUuids.size());
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    sessions.add(mapSession(rs));
+                }
+            }
+            return sessions;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private PlayerSession mapSession(ResultSet rs) throws Exception {
+        UUID playerUuid = UUID.fromString(rs.getString("player_uuid"));
+        boolean chatEnabled = rs.getInt("nation_chat_enabled") == 1;
+        long nationId = rs.getLong("nation_id");
+        if (rs.wasNull()) {
+            return new PlayerSession(playerUuid, Optional.empty(), Optional.empty(), chatEnabled);
+        }
+        NationMember member = new NationMember(nationId, playerUuid, NationRole.valueOf(rs.getString("role")));
+        String name = rs.getString("name");
+        if (name == null) {
+            return new PlayerSession(playerUuid, Optional.of(member), Optional.empty(), chatEnabled);
+        }
+        Nation nation = new Nation(
+            nationId,
+            name,
+            UUID.fromString(rs.getString("owner_uuid")),
+            rs.getInt("level"),
+            rs.getLong("exp"),
+            rs.getLong("bank_balance"),
+            rs.getInt("score")
+        );
+        return new PlayerSession(playerUuid, Optional.of(member), Optional.of(nation), chatEnabled);
+    }
+
+    public record PlayerSession(UUID playerUuid, Optional<NationMember> member, Optional<Nation> nation, boolean nationChatEnabled) {
+        public static PlayerSession empty(UUID playerUuid) {
+            return new PlayerSession(playerUuid, Optional.empty(), Optional.empty(), false);
+        }
+    }
+}
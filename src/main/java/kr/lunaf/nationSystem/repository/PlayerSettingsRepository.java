@@ -5,6 +5,7 @@ import kr.lunaf.nationSystem.db.DatabaseManager;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -40,4 +41,19 @@ public class PlayerSettingsRepository {
             statement.executeUpdate();
         }
     }
+
+    public void disableNationChat(Connection connection, Collection<UUID> playerUuids) throws Exception {
+        if (playerUuids.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE player_settings SET nation_chat_enabled = 0 WHERE player_uuid IN (" +
+            SqlLists.placeholders(playerUuids.size()) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (UUID playerUuid : playerUuids) {
+                statement.setString(index++, playerUuid.toString());
+            }
+            statement.executeUpdate();
+        }
+    }
 }
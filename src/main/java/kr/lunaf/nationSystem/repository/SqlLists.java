@@ -0,0 +1,21 @@
+package kr.lunaf.nationSystem.repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+
+final class SqlLists {
+    private SqlLists() {
+    }
+
+    static String placeholders(int count) {
+        return String.join(", ", java.util.Collections.nCopies(count, "?"));
+    }
+
+    static int bindLongs(PreparedStatement statement, int startIndex, Collection<Long> values) throws Exception {
+        int index = startIndex;
+        for (Long value : values) {
+            statement.setLong(index++, value);
+        }
+        return index;
+    }
+}
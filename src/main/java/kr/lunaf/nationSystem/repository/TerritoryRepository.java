@@ -10,6 +10,7 @@ import java.sql.ResultSet;
 import java.sql.Statement;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -156,8 +157,8 @@ public class TerritoryRepository {
         }
     }
 
-    public void updateWallStatus(Connection connection, long territoryId, WallStatus status, Instant expiresAt) throws Exception {
-        String sql = "UPDATE nation_territories SET wall_status = ?, wall_expires_at = ? WHERE id = ?";
+    public boolean updateWallStatus(Connection connection, long territoryId, WallStatus expected, WallStatus status, Instant expiresAt) throws Exception {
+        String sql = "UPDATE nation_territories SET wall_status = ?, wall_expires_at = ? WHERE id = ? AND wall_status = ?";
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setString(1, status.name());
             if (expiresAt != null) {
@@ -166,7 +167,8 @@ public class TerritoryRepository {
                 statement.setTimestamp(2, null);
             }
             statement.setLong(3, territoryId);
-            statement.executeUpdate();
+            statement.setString(4, expected.name());
+            return statement.executeUpdate() == 1;
         }
     }
 
@@ -178,6 +180,30 @@ public class TerritoryRepository {
         }
     }
 
+    public List<NationTerritory> lockPending(Connection connection, Collection<Long> territoryIds) throws Exception {
+        String sql = "SELECT * FROM nation_territories WHERE wall_status = ? AND id IN (" +
+            SqlLists.placeholders(territoryIds.size()) + ") FOR UPDATE";
+        List<NationTerritory> territories = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, WallStatus.PENDING.name());
+            SqlLists.bindLongs(statement, 2, territoryIds);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    territories.add(mapTerritory(rs));
+                }
+            }
+        }
+        return territories;
+    }
+
+    public void deleteTerritories(Connection connection, Collection<Long> territoryIds) throws Exception {
+        String sql = "DELETE FROM nation_territories WHERE id IN (" + SqlLists.placeholders(territoryIds.size()) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            SqlLists.bindLongs(statement, 1, territoryIds);
+            statement.executeUpdate();
+        }
+    }
+
     public void deleteByNation(Connection connection, long nationId) throws Exception {
         String sql = "DELETE FROM nation_territories WHERE nation_id = ?";
         try (PreparedStatement statement = connection.prepareStatement(sql)) {
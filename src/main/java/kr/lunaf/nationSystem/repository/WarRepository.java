@@ -0,0 +1,324 @@
+package kr.lunaf.nationSystem.repository;
+
+import kr.lunaf.nationSystem.db.DatabaseManager;
+import kr.lunaf.nationSystem.domain.WarMatchEntry;
+import kr.lunaf.nationSystem.domain.WarPhase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class WarRepository {
+    private final DatabaseManager databaseManager;
+
+    public WarRepository(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    public List<StoredWar> listWars() {
+        String sql = "SELECT nation_a, nation_b, phase, battle_at, ends_at, kills_a, kills_b, core_damage_a, core_damage_b " +
+            "FROM nation_wars";
+        List<StoredWar> wars = new ArrayList<>();
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                wars.add(new StoredWar(
+                    rs.getLong("nation_a"),
+                    rs.getLong("nation_b"),
+                    WarPhase.valueOf(rs.getString("phase")),
+                    rs.getTimestamp("battle_at").toInstant(),
+                    rs.getTimestamp("ends_at").toInstant(),
+                    rs.getLong("kills_a"),
+                    rs.getLong("kills_b"),
+                    rs.getLong("core_damage_a"),
+                    rs.getLong("core_damage_b")
+                ));
+            }
+            return wars;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void insertWar(Connection connection, StoredWar war) throws Exception {
+        String sql = "INSERT INTO nation_wars (nation_a, nation_b, phase, battle_at, ends_at, kills_a, kills_b, core_damage_a, core_damage_b) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE nation_b = VALUES(nation_b), phase = VALUES(phase), " +
+            "battle_at = VALUES(battle_at), ends_at = VALUES(ends_at), kills_a = VALUES(kills_a), kills_b = VALUES(kills_b), " +
+            "core_damage_a = VALUES(core_damage_a), core_damage_b = VALUES(core_damage_b)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, war.nationA());
+            statement.setLong(2, war.nationB());
+            statement.setString(3, war.phase().name());
+            statement.setTimestamp(4, Timestamp.from(war.battleAt()));
+            statement.setTimestamp(5, Timestamp.from(war.endsAt()));
+            statement.setLong(6, war.killsA());
+            statement.setLong(7, war.killsB());
+            statement.setLong(8, war.coreDamageA());
+            statement.setLong(9, war.coreDamageB());
+            statement.executeUpdate();
+        }
+    }
+
+    public void updatePhase(Connection connection, long nationA, WarPhase phase) throws Exception {
+        String sql = "UPDATE nation_wars SET phase = ? WHERE nation_a = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, phase.name());
+            statement.setLong(2, nationA);
+            statement.executeUpdate();
+        }
+    }
+
+    public void checkpoint(Connection connection, Collection<StoredWar> wars) throws Exception {
+        if (wars.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE nation_wars SET phase = ?, battle_at = ?, ends_at = ?, kills_a = ?, kills_b = ?, " +
+            "core_damage_a = ?, core_damage_b = ? WHERE nation_a = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (StoredWar war : wars) {
+                statement.setString(1, war.phase().name());
+                statement.setTimestamp(2, Timestamp.from(war.battleAt()));
+                statement.setTimestamp(3, Timestamp.from(war.endsAt()));
+                statement.setLong(4, war.killsA());
+                statement.setLong(5, war.killsB());
+                statement.setLong(6, war.coreDamageA());
+                statement.setLong(7, war.coreDamageB());
+                statement.setLong(8, war.nationA());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public void deleteWar(Connection connection, long nationA) throws Exception {
+        String sql = "DELETE FROM nation_wars WHERE nation_a = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, nationA);
+            statement.executeUpdate();
+        }
+    }
+
+    public long insertResult(Connection connection, StoredResult result) throws Exception {
+        String sql = "INSERT INTO nation_war_results (nation_a, nation_b, winner_id, score_a, score_b, kills_a, kills_b, " +
+            "core_damage_a, core_damage_b, battle_at, ended_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            statement.setLong(1, result.nationA());
+            statement.setLong(2, result.nationB());
+            if (result.winnerId() == null) {
+                statement.setNull(3, Types.BIGINT);
+            } else {
+                statement.setLong(3, result.winnerId());
+            }
+            statement.setLong(4, result.scoreA());
+            statement.setLong(5, result.scoreB());
+            statement.setLong(6, result.killsA());
+            statement.setLong(7, result.killsB());
+            statement.setLong(8, result.coreDamageA());
+            statement.setLong(9, result.coreDamageB());
+            statement.setTimestamp(10, Timestamp.from(result.battleAt()));
+            statement.setTimestamp(11, Timestamp.from(result.endedAt()));
+            statement.executeUpdate();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getLong(1);
+                }
+            }
+        }
+        throw new IllegalStateException("No generated key for war result");
+    }
+
+    public void insertPlayerStats(Connection connection, long resultId, Collection<StoredPlayerStats> stats) throws Exception {
+        if (stats.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO nation_war_player_stats (result_id, player_uuid, nation_id, kills, deaths, core_damage) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (StoredPlayerStats entry : stats) {
+                statement.setLong(1, resultId);
+                statement.setString(2, entry.playerUuid().toString());
+                statement.setLong(3, entry.nationId());
+                statement.setLong(4, entry.kills());
+                statement.setLong(5, entry.deaths());
+                statement.setLong(6, entry.coreDamage());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public Map<Long, List<StoredPlayerStats>> listPlayerTallies() {
+        String sql = "SELECT nation_a, player_uuid, nation_id, kills, deaths, core_damage FROM nation_war_player_tallies";
+        Map<Long, List<StoredPlayerStats>> tallies = new HashMap<>();
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                tallies.computeIfAbsent(rs.getLong("nation_a"), key -> new ArrayList<>()).add(new StoredPlayerStats(
+                    UUID.fromString(rs.getString("player_uuid")),
+                    rs.getLong("nation_id"),
+                    rs.getLong("kills"),
+                    rs.getLong("deaths"),
+                    rs.getLong("core_damage")
+                ));
+            }
+            return tallies;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Map<Long, List<String>> listPlacedBlocks() {
+        String sql = "SELECT nation_a, block_key FROM nation_war_placed_blocks";
+        Map<Long, List<String>> blocks = new HashMap<>();
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                blocks.computeIfAbsent(rs.getLong("nation_a"), key -> new ArrayList<>()).add(rs.getString("block_key"));
+            }
+            return blocks;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void savePlayerTallies(Connection connection, long nationA, Collection<StoredPlayerStats> stats) throws Exception {
+        if (stats.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO nation_war_player_tallies (nation_a, player_uuid, nation_id, kills, deaths, core_damage) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE kills = VALUES(kills), deaths = VALUES(deaths), core_damage = VALUES(core_damage)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (StoredPlayerStats entry : stats) {
+                statement.setLong(1, nationA);
+                statement.setString(2, entry.playerUuid().toString());
+                statement.setLong(3, entry.nationId());
+                statement.setLong(4, entry.kills());
+                statement.setLong(5, entry.deaths());
+                statement.setLong(6, entry.coreDamage());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    public void savePlacedBlocks(Connection connection, long nationA, Collection<String> added, Collection<String> removed) throws Exception {
+        if (!added.isEmpty()) {
+            String sql = "INSERT IGNORE INTO nation_war_placed_blocks (nation_a, block_key) VALUES (?, ?)";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (String blockKey : added) {
+                    statement.setLong(1, nationA);
+                    statement.setString(2, blockKey);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+        if (!removed.isEmpty()) {
+            String sql = "DELETE FROM nation_war_placed_blocks WHERE nation_a = ? AND block_key = ?";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (String blockKey : removed) {
+                    statement.setLong(1, nationA);
+                    statement.setString(2, blockKey);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+
+    public void deleteWarDetails(Connection connection, long nationA) throws Exception {
+        for (String table : List.of("nation_war_player_tallies", "nation_war_placed_blocks")) {
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + table + " WHERE nation_a = ?")) {
+                statement.setLong(1, nationA);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    public List<WarMatchEntry> listQueue() {
+        String sql = "SELECT nation_id, nation_level, enqueued_at FROM war_queue ORDER BY enqueued_at ASC, nation_id ASC";
+        List<WarMatchEntry> entries = new ArrayList<>();
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                entries.add(new WarMatchEntry(
+                    rs.getLong("nation_id"),
+                    rs.getInt("nation_level"),
+                    rs.getTimestamp("enqueued_at").toInstant().toEpochMilli()
+                ));
+            }
+            return entries;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void enqueue(Connection connection, WarMatchEntry entry) throws Exception {
+        String sql = "INSERT INTO war_queue (nation_id, nation_level, enqueued_at) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE nation_level = VALUES(nation_level), enqueued_at = VALUES(enqueued_at)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, entry.nationId());
+            statement.setInt(2, entry.nationLevel());
+            statement.setTimestamp(3, Timestamp.from(Instant.ofEpochMilli(entry.enqueuedAtMillis())));
+            statement.executeUpdate();
+        }
+    }
+
+    public void dequeue(Connection connection, Collection<Long> nationIds) throws Exception {
+        if (nationIds.isEmpty()) {
+            return;
+        }
+        String sql = "DELETE FROM war_queue WHERE nation_id IN (" + SqlLists.placeholders(nationIds.size()) + ")";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            SqlLists.bindLongs(statement, 1, nationIds);
+            statement.executeUpdate();
+        }
+    }
+
+    public record StoredWar(
+        long nationA,
+        long nationB,
+        WarPhase phase,
+        Instant battleAt,
+        Instant endsAt,
+        long killsA,
+        long killsB,
+        long coreDamageA,
+        long coreDamageB
+    ) {
+    }
+
+    public record StoredResult(
+        long nationA,
+        long nationB,
+        Long winnerId,
+        long scoreA,
+        long scoreB,
+        long killsA,
+        long killsB,
+        long coreDamageA,
+        long coreDamageB,
+        Instant battleAt,
+        Instant endedAt
+    ) {
+    }
+
+    public record StoredPlayerStats(UUID playerUuid, long nationId, long kills, long deaths, long coreDamage) {
+    }
+}
@@ -2,12 +2,8 @@ package kr.lunaf.nationSystem.service;
 
 import kr.lunaf.nationSystem.db.DatabaseManager;
 import kr.lunaf.nationSystem.domain.BankHistoryEntry;
-import kr.lunaf.nationSystem.domain.BankHistoryType;
 import kr.lunaf.nationSystem.domain.NationMember;
 import kr.lunaf.nationSystem.domain.BuildingType;
-import kr.lunaf.nationSystem.repository.BankHistoryRepository;
-import kr.lunaf.nationSystem.repository.NationMemberRepository;
-import kr.lunaf.nationSystem.repository.NationRepository;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,9 +14,8 @@ import java.util.concurrent.ExecutorService;
 
 public class BankService {
     private final DatabaseManager databaseManager;
-    private final NationRepository nationRepository;
-    private final NationMemberRepository memberRepository;
-    private final BankHistoryRepository historyRepository;
+    private final NationDirectory directory;
+    private final NationCounterStore counterStore;
     private final BuildingService buildingService;
     private final EconomyService economyService;
     private final ExecutorService dbExecutor;
@@ -28,18 +23,16 @@ public class BankService {
 
     public BankService(
         DatabaseManager databaseManager,
-        NationRepository nationRepository,
-        NationMemberRepository memberRepository,
-        BankHistoryRepository historyRepository,
+        NationDirectory directory,
+        NationCounterStore counterStore,
         BuildingService buildingService,
         EconomyService economyService,
         ExecutorService dbExecutor,
         Executor syncExecutor
     ) {
         this.databaseManager = databaseManager;
-        this.nationRepository = nationRepository;
-        this.memberRepository = memberRepository;
-        this.historyRepository = historyRepository;
+        this.directory = directory;
+        this.counterStore = counterStore;
         this.buildingService = buildingService;
         this.economyService = economyService;
         this.dbExecutor = dbExecutor;
@@ -48,7 +41,7 @@ public class BankService {
 
     public CompletableFuture<ServiceResult<Long>> getBalance(UUID playerUuid) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
                 return PendingBalance.failure(Status.NOT_IN_NATION);
             }
@@ -63,8 +56,8 @@ public class BankService {
                     if (!hasBank) {
                         return CompletableFuture.completedFuture(ServiceResult.failure(Status.NO_BANK_BUILDING));
                     }
-                    return CompletableFuture.supplyAsync(() -> nationRepository.findById(member.nationId())
-                        .map(nation -> ServiceResult.success(nation.bankBalance()))
+                    return CompletableFuture.supplyAsync(() -> directory.findNation(member.nationId())
+                        .map(nation -> ServiceResult.success(counterStore.snapshot(nation.id()).bankBalance()))
                         .orElse(ServiceResult.failure(Status.NOT_IN_NATION)), dbExecutor);
                 });
         });
@@ -72,7 +65,7 @@ public class BankService {
 
     public CompletableFuture<ServiceResult<List<BankHistoryEntry>>> getHistory(UUID playerUuid, int limit) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
                 return PendingBalance.failure(Status.NOT_IN_NATION);
             }
@@ -87,10 +80,10 @@ public class BankService {
                     if (!hasBank) {
                         return CompletableFuture.completedFuture(ServiceResult.failure(Status.NO_BANK_BUILDING));
                     }
-                    return CompletableFuture.supplyAsync(() -> {
-                        List<BankHistoryEntry> entries = historyRepository.listRecent(member.nationId(), limit);
-                        return ServiceResult.success(entries);
-                    }, dbExecutor);
+                    return CompletableFuture.supplyAsync(
+                        () -> ServiceResult.success(counterStore.recentHistory(member.nationId(), limit)),
+                        dbExecutor
+                    );
                 });
         });
     }
@@ -100,7 +93,7 @@ public class BankService {
             if (!economyService.isAvailable()) {
                 return PendingDepositResult.failure(Status.ECONOMY_UNAVAILABLE);
             }
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
                 return PendingDepositResult.failure(Status.NOT_IN_NATION);
             }
@@ -121,13 +114,7 @@ public class BankService {
                                 return CompletableFuture.completedFuture(ServiceResult.failure(Status.INSUFFICIENT_FUNDS));
                             }
                             return CompletableFuture.supplyAsync(() -> {
-                                long newBalance = databaseManager.withTransaction(connection -> {
-                                    long current = nationRepository.getBankBalanceForUpdate(connection, pending.nationId());
-                                    long updated = current + amount;
-                                    nationRepository.addBankBalance(connection, pending.nationId(), amount);
-                                    historyRepository.insert(connection, pending.nationId(), BankHistoryType.DEPOSIT, amount, pending.playerUuid());
-                                    return updated;
-                                });
+                                long newBalance = counterStore.deposit(pending.nationId(), amount, pending.playerUuid());
                                 return ServiceResult.success(newBalance);
                             }, dbExecutor);
                         });
@@ -0,0 +1,287 @@
+package kr.lunaf.nationSystem.service;
+
+import kr.lunaf.nationSystem.config.PluginConfig;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.IntConsumer;
+
+public class BlockEditService {
+    private final Plugin plugin;
+    private final PluginConfig pluginConfig;
+    private final Queue<EditTask> tasks = new ConcurrentLinkedQueue<>();
+    private BukkitTask ticker;
+
+    public BlockEditService(Plugin plugin, PluginConfig pluginConfig) {
+        this.plugin = plugin;
+        this.pluginConfig = pluginConfig;
+    }
+
+    public void start() {
+        if (ticker == null) {
+            ticker = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    public void stop() {
+        if (ticker != null) {
+            ticker.cancel();
+            ticker = null;
+        }
+        EditTask task;
+        while ((task = tasks.poll()) != null) {
+            task.cancel();
+        }
+    }
+
+    public EditTask submit(World world, List<Fill> fills, IntConsumer progressListener) {
+        EditTask task = new EditTask(world, split(fills), progressListener);
+        if (task.jobs.isEmpty()) {
+            task.future.complete(null);
+            return task;
+        }
+        tasks.add(task);
+        return task;
+    }
+
+    public int pendingTasks() {
+        return tasks.size();
+    }
+
+    private void tick() {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        long deadline = System.nanoTime() + pluginConfig.blockEditTickBudgetMillis() * 1_000_000L;
+        while (System.nanoTime() < deadline) {
+            EditTask task = tasks.peek();
+            if (task == null) {
+                return;
+            }
+            Step step;
+            try {
+                step = task.run(deadline);
+            } catch (RuntimeException e) {
+                tasks.poll();
+                plugin.getLogger().warning("Block edit failed, skipping task: " + e.getMessage());
+                task.abort(e);
+                continue;
+            }
+            if (step == Step.DONE) {
+                tasks.poll();
+                task.future.complete(null);
+            } else {
+                return;
+            }
+        }
+    }
+
+    private List<ChunkJob> split(List<Fill> fills) {
+        Map<Long, ChunkJob> jobs = new LinkedHashMap<>();
+        for (Fill fill : fills) {
+            if (fill.minX() > fill.maxX() || fill.minZ() > fill.maxZ() || fill.minY() > fill.maxY()) {
+                continue;
+            }
+            for (int chunkX = fill.minX() >> 4; chunkX <= fill.maxX() >> 4; chunkX++) {
+                for (int chunkZ = fill.minZ() >> 4; chunkZ <= fill.maxZ() >> 4; chunkZ++) {
+                    int fromX = chunkX << 4;
+                    int fromZ = chunkZ << 4;
+                    Fill clipped = fill.clip(fromX, fromX + 15, fromZ, fromZ + 15);
+                    int finalX = chunkX;
+                    int finalZ = chunkZ;
+                    long key = ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+                    jobs.computeIfAbsent(key, ignored -> new ChunkJob(finalX, finalZ)).fills.add(clipped);
+                }
+            }
+        }
+        return new ArrayList<>(jobs.values());
+    }
+
+    private enum Step {
+        DONE,
+        PAUSED
+    }
+
+    public record Area(int minX, int maxX, int minZ, int maxZ) {
+        public boolean contains(int x, int z) {
+            return x >= minX && x <= maxX && z >= minZ && z <= maxZ;
+        }
+    }
+
+    public record Fill(int minX, int maxX, int minY, int maxY, int minZ, int maxZ, Area hole, Material material) {
+        public static Fill area(Area area, int minY, int maxY, Material material) {
+            return new Fill(area.minX(), area.maxX(), minY, maxY, area.minZ(), area.maxZ(), null, material);
+        }
+
+        public static Fill ring(Area outer, Area inner, int minY, int maxY, Material material) {
+            return new Fill(outer.minX(), outer.maxX(), minY, maxY, outer.minZ(), outer.maxZ(), inner, material);
+        }
+
+        private Fill clip(int fromX, int toX, int fromZ, int toZ) {
+            return new Fill(
+                Math.max(minX, fromX),
+                Math.min(maxX, toX),
+                minY,
+                maxY,
+                Math.max(minZ, fromZ),
+                Math.min(maxZ, toZ),
+                hole,
+                material
+            );
+        }
+
+        private int columns() {
+            return (maxX - minX + 1) * (maxZ - minZ + 1);
+        }
+    }
+
+    public final class EditTask {
+        private final World world;
+        private final List<ChunkJob> jobs;
+        private final IntConsumer progressListener;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final long totalColumns;
+        private long doneColumns;
+        private int jobIndex;
+        private int lastPercent = -1;
+
+        private EditTask(World world, List<ChunkJob> jobs, IntConsumer progressListener) {
+            this.world = world;
+            this.jobs = jobs;
+            this.progressListener = progressListener;
+            long total = 0;
+            for (ChunkJob job : jobs) {
+                for (Fill fill : job.fills) {
+                    total += fill.columns();
+                }
+            }
+            this.totalColumns = total;
+        }
+
+        public CompletableFuture<Void> future() {
+            return future;
+        }
+
+        public int progressPercent() {
+            if (totalColumns == 0) {
+                return 100;
+            }
+            return (int) (doneColumns * 100 / totalColumns);
+        }
+
+        private Step run(long deadline) {
+            while (jobIndex < jobs.size()) {
+                ChunkJob job = jobs.get(jobIndex);
+                Step step = job.run(this, deadline);
+                reportProgress();
+                if (step != Step.DONE) {
+                    return step;
+                }
+                jobIndex++;
+            }
+            return Step.DONE;
+        }
+
+        private void reportProgress() {
+            int percent = progressPercent();
+            if (percent != lastPercent) {
+                lastPercent = percent;
+                if (progressListener != null) {
+                    progressListener.accept(percent);
+                }
+            }
+        }
+
+        private void cancel() {
+            abort(new CancellationException("Block edit cancelled"));
+        }
+
+        private void abort(Throwable cause) {
+            for (int i = jobIndex; i < jobs.size(); i++) {
+                jobs.get(i).release(world);
+            }
+            future.completeExceptionally(cause);
+        }
+    }
+
+    private final class ChunkJob {
+        private final int chunkX;
+        private final int chunkZ;
+        private final List<Fill> fills = new ArrayList<>();
+        private CompletableFuture<Chunk> loading;
+        private Chunk chunk;
+        private int fillIndex;
+        private int column;
+
+        private ChunkJob(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        private Step run(EditTask task, long deadline) {
+            if (chunk == null) {
+                if (!task.world.isChunkLoaded(chunkX, chunkZ)) {
+                    if (loading == null) {
+                        loading = task.world.getChunkAtAsync(chunkX, chunkZ);
+                    }
+                    if (!loading.isDone()) {
+                        return Step.PAUSED;
+                    }
+                }
+                task.world.addPluginChunkTicket(chunkX, chunkZ, plugin);
+                chunk = task.world.getChunkAt(chunkX, chunkZ);
+            }
+            while (fillIndex < fills.size()) {
+                Fill fill = fills.get(fillIndex);
+                int depth = fill.maxZ() - fill.minZ() + 1;
+                int columns = fill.columns();
+                while (column < columns) {
+                    int x = fill.minX() + column / depth;
+                    int z = fill.minZ() + column % depth;
+                    column++;
+                    task.doneColumns++;
+                    if (fill.hole() == null || !fill.hole().contains(x, z)) {
+                        for (int y = fill.minY(); y <= fill.maxY(); y++) {
+                            Block block = chunk.getBlock(x & 15, y, z & 15);
+                            if (block.getType() != fill.material()) {
+                                block.setType(fill.material(), false);
+                            }
+                        }
+                    }
+                    if (System.nanoTime() >= deadline) {
+                        return column < columns || fillIndex + 1 < fills.size() ? Step.PAUSED : finish(task);
+                    }
+                }
+                fillIndex++;
+                column = 0;
+            }
+            return finish(task);
+        }
+
+        private Step finish(EditTask task) {
+            fillIndex = fills.size();
+            release(task.world);
+            return Step.DONE;
+        }
+
+        private void release(World world) {
+            if (chunk != null) {
+                world.removePluginChunkTicket(chunkX, chunkZ, plugin);
+                chunk = null;
+            }
+        }
+    }
+}
@@ -13,54 +13,68 @@ import kr.lunaf.nationSystem.domain.Nation;
 import kr.lunaf.nationSystem.domain.NationTerritory;
 import kr.lunaf.nationSystem.domain.WallStatus;
 import kr.lunaf.nationSystem.repository.BuildingRepository;
-import kr.lunaf.nationSystem.repository.NationMemberRepository;
-import kr.lunaf.nationSystem.repository.NationRepository;
-import kr.lunaf.nationSystem.repository.TerritoryRepository;
+import kr.lunaf.nationSystem.util.DeadlineQueue;
 import org.bukkit.Location;
 import org.bukkit.block.BlockFace;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.logging.Logger;
 
 public class BuildingService {
     private final PluginConfig pluginConfig;
     private final BuildingsConfig buildingsConfig;
     private final DatabaseManager databaseManager;
     private final BuildingRepository buildingRepository;
-    private final NationRepository nationRepository;
-    private final TerritoryRepository territoryRepository;
-    private final NationMemberRepository memberRepository;
+    private final TerritoryIndex territoryIndex;
+    private final NationDirectory directory;
     private final StructureService structureService;
     private final ExecutorService dbExecutor;
+    private final ExecutorService backgroundExecutor;
     private final Executor syncExecutor;
+    private final DeadlineQueue<Long, Building> completionQueue;
 
     public BuildingService(
         PluginConfig pluginConfig,
         BuildingsConfig buildingsConfig,
         DatabaseManager databaseManager,
         BuildingRepository buildingRepository,
-        NationRepository nationRepository,
-        TerritoryRepository territoryRepository,
-        NationMemberRepository memberRepository,
+        TerritoryIndex territoryIndex,
+        NationDirectory directory,
         StructureService structureService,
         ExecutorService dbExecutor,
-        Executor syncExecutor
+        ExecutorService backgroundExecutor,
+        Executor syncExecutor,
+        Logger logger
     ) {
         this.pluginConfig = pluginConfig;
         this.buildingsConfig = buildingsConfig;
         this.databaseManager = databaseManager;
         this.buildingRepository = buildingRepository;
-        this.nationRepository = nationRepository;
-        this.territoryRepository = territoryRepository;
-        this.memberRepository = memberRepository;
+        this.territoryIndex = territoryIndex;
+        this.directory = directory;
         this.structureService = structureService;
         this.dbExecutor = dbExecutor;
+        this.backgroundExecutor = backgroundExecutor;
         this.syncExecutor = syncExecutor;
+        this.completionQueue = new DeadlineQueue<>("NationSystem-BuildingCompletion", backgroundExecutor, this::completeBuildings, logger);
+    }
+
+    public void startCompletionQueue() {
+        for (Building building : buildingRepository.listByState(BuildingState.BUILDING)) {
+            scheduleCompletion(building);
+        }
+        completionQueue.start();
+    }
+
+    public void stopCompletionQueue() {
+        completionQueue.stop();
     }
 
     public CompletableFuture<ServiceResult<Building>> placeBuilding(
@@ -70,14 +84,14 @@ public class BuildingService {
         BlockFace facing
     ) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
             if (member.get().role() != NationRole.OWNER) {
                 return ServiceResult.failure(Status.NOT_OWNER);
             }
-            Optional<Nation> nation = nationRepository.findById(member.get().nationId());
+            Optional<Nation> nation = directory.findNation(member.get().nationId());
             if (nation.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
@@ -144,6 +158,7 @@ public class BuildingService {
                 building.level(),
                 building.buildCompleteAt()
             );
+            scheduleCompletion(stored);
             return ServiceResult.success(stored);
         }, dbExecutor);
     }
@@ -151,18 +166,10 @@ public class BuildingService {
     public CompletableFuture<Void> processBuildingCompletion() {
         return CompletableFuture.runAsync(() -> {
             List<Building> due = buildingRepository.listDueBuildings(Instant.now());
-            for (Building building : due) {
-                BuildingDefinition definition = buildingsConfig.get(building.type());
-                if (definition == null || !structureService.hasBuildingStructure(definition.structurePath())) {
-                    continue;
-                }
-                databaseManager.withTransaction(connection -> {
-                    buildingRepository.updateState(connection, building.id(), BuildingState.ACTIVE, null);
-                    return null;
-                });
-                schedulePlacement(building, definition);
+            if (!due.isEmpty()) {
+                completeBuildings(due);
             }
-        }, dbExecutor);
+        }, backgroundExecutor);
     }
 
     public CompletableFuture<Boolean> hasActiveBuilding(long nationId, BuildingType type) {
@@ -171,6 +178,40 @@ public class BuildingService {
         }, dbExecutor);
     }
 
+    private void scheduleCompletion(Building building) {
+        if (building.buildCompleteAt() == null) {
+            return;
+        }
+        completionQueue.schedule(building.id(), building, building.buildCompleteAt());
+    }
+
+    private void completeBuildings(List<Building> due) {
+        List<Building> ready = new ArrayList<>(due.size());
+        for (Building building : due) {
+            BuildingDefinition definition = buildingsConfig.get(building.type());
+            if (definition == null || !structureService.hasBuildingStructure(definition.structurePath())) {
+                continue;
+            }
+            completionQueue.cancel(building.id());
+            ready.add(building);
+        }
+        if (ready.isEmpty()) {
+            return;
+        }
+        List<Building> completed = databaseManager.withTransaction(connection -> {
+            List<Building> updated = new ArrayList<>(ready.size());
+            for (Building building : ready) {
+                if (buildingRepository.transitionState(connection, building.id(), BuildingState.BUILDING, BuildingState.ACTIVE)) {
+                    updated.add(building);
+                }
+            }
+            return updated;
+        });
+        for (Building building : completed) {
+            schedulePlacement(building, buildingsConfig.get(building.type()));
+        }
+    }
+
     private void schedulePlacement(Building building, BuildingDefinition definition) {
         syncExecutor.execute(() -> {
             Location location = new Location(
@@ -187,24 +228,8 @@ public class BuildingService {
     }
 
     private Optional<NationTerritory> findTerritoryForNation(long nationId, Location location) {
-        List<NationTerritory> territories = territoryRepository.listByNation(nationId);
-        for (NationTerritory territory : territories) {
-            if (!territory.world().equalsIgnoreCase(location.getWorld().getName())) {
-                continue;
-            }
-            int size = territory.size();
-            int c = ((size - 1) / 2) + 1;
-            int minX = territory.centerX() - c;
-            int maxX = territory.centerX() + c;
-            int minZ = territory.centerZ() - c;
-            int maxZ = territory.centerZ() + c;
-            int x = location.getBlockX();
-            int z = location.getBlockZ();
-            if (x >= minX && x <= maxX && z >= minZ && z <= maxZ) {
-                return Optional.of(territory);
-            }
-        }
-        return Optional.empty();
+        return territoryIndex.findAt(location.getWorld().getName(), location.getBlockX(), location.getBlockZ())
+            .filter(territory -> territory.nationId() == nationId);
     }
 
     private boolean hasBuildingInProgress(List<Building> buildings) {
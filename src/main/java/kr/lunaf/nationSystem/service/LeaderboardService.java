@@ -0,0 +1,96 @@
+package kr.lunaf.nationSystem.service;
+
+import kr.lunaf.nationSystem.domain.LeaderboardMetric;
+import kr.lunaf.nationSystem.domain.Nation;
+import kr.lunaf.nationSystem.domain.NationStanding;
+import kr.lunaf.nationSystem.repository.NationRepository;
+import kr.lunaf.nationSystem.util.RankedIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class LeaderboardService implements NationCounterStore.ChangeListener {
+    private final NationRepository nationRepository;
+    private final Map<LeaderboardMetric, RankedIndex> indexes = new EnumMap<>(LeaderboardMetric.class);
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+
+    public LeaderboardService(NationRepository nationRepository) {
+        this.nationRepository = nationRepository;
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            indexes.put(metric, new RankedIndex());
+        }
+    }
+
+    public void load() {
+        List<Nation> nations = nationRepository.listAll();
+        names.clear();
+        for (RankedIndex index : indexes.values()) {
+            index.clear();
+        }
+        for (Nation nation : nations) {
+            put(nation);
+        }
+    }
+
+    public void nationCreated(Nation nation) {
+        put(nation);
+    }
+
+    public void nationsDeleted(Collection<Long> nationIds) {
+        for (long nationId : nationIds) {
+            names.remove(nationId);
+            for (RankedIndex index : indexes.values()) {
+                index.remove(nationId);
+            }
+        }
+    }
+
+    public void levelChanged(long nationId, int level) {
+        if (names.containsKey(nationId)) {
+            indexes.get(LeaderboardMetric.LEVEL).update(nationId, level);
+        }
+    }
+
+    @Override
+    public void countersChanged(long nationId, long exp, long score) {
+        if (!names.containsKey(nationId)) {
+            return;
+        }
+        indexes.get(LeaderboardMetric.EXP).update(nationId, exp);
+        indexes.get(LeaderboardMetric.SCORE).update(nationId, score);
+    }
+
+    public Optional<NationStanding> standing(LeaderboardMetric metric, long nationId) {
+        RankedIndex.Entry entry = indexes.get(metric).find(nationId);
+        return entry == null ? Optional.empty() : Optional.of(toStanding(entry));
+    }
+
+    public List<NationStanding> top(LeaderboardMetric metric, int offset, int limit) {
+        List<RankedIndex.Entry> entries = indexes.get(metric).page(offset, limit);
+        List<NationStanding> standings = new ArrayList<>(entries.size());
+        for (RankedIndex.Entry entry : entries) {
+            standings.add(toStanding(entry));
+        }
+        return standings;
+    }
+
+    public int size(LeaderboardMetric metric) {
+        return indexes.get(metric).size();
+    }
+
+    private void put(Nation nation) {
+        names.put(nation.id(), nation.name());
+        indexes.get(LeaderboardMetric.SCORE).update(nation.id(), nation.score());
+        indexes.get(LeaderboardMetric.LEVEL).update(nation.id(), nation.level());
+        indexes.get(LeaderboardMetric.EXP).update(nation.id(), nation.exp());
+    }
+
+    private NationStanding toStanding(RankedIndex.Entry entry) {
+        return new NationStanding(entry.rank(), entry.id(), names.getOrDefault(entry.id(), "?"), entry.value());
+    }
+}
@@ -0,0 +1,589 @@
+package kr.lunaf.nationSystem.service;
+
+import kr.lunaf.nationSystem.db.DatabaseManager;
+import kr.lunaf.nationSystem.db.Transaction;
+import kr.lunaf.nationSystem.domain.BankHistoryEntry;
+import kr.lunaf.nationSystem.domain.BankHistoryType;
+import kr.lunaf.nationSystem.domain.Nation;
+import kr.lunaf.nationSystem.repository.BankHistoryRepository;
+import kr.lunaf.nationSystem.repository.NationCounterRepository;
+import kr.lunaf.nationSystem.repository.NationRepository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+public class NationCounterStore {
+    private static final String ACTIVE_JOURNAL = "active.log";
+
+    private final DatabaseManager databaseManager;
+    private final NationRepository nationRepository;
+    private final NationCounterRepository counterRepository;
+    private final BankHistoryRepository historyRepository;
+    private final ExecutorService dbExecutor;
+    private final File journalDir;
+    private final ChangeListener changeListener;
+    private final Logger logger;
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final Object flushMonitor = new Object();
+    private final Object journalMonitor = new Object();
+    private final AtomicLong sequence = new AtomicLong();
+    private BufferedWriter journal;
+
+    public NationCounterStore(
+        DatabaseManager databaseManager,
+        NationRepository nationRepository,
+        NationCounterRepository counterRepository,
+        BankHistoryRepository historyRepository,
+        ExecutorService dbExecutor,
+        File dataFolder,
+        ChangeListener changeListener,
+        Logger logger
+    ) {
+        this.databaseManager = databaseManager;
+        this.nationRepository = nationRepository;
+        this.counterRepository = counterRepository;
+        this.historyRepository = historyRepository;
+        this.dbExecutor = dbExecutor;
+        this.journalDir = new File(dataFolder, "counter-journal");
+        this.changeListener = changeListener;
+        this.logger = logger;
+    }
+
+    public void start() {
+        if (!journalDir.isDirectory() && !journalDir.mkdirs()) {
+            throw new IllegalStateException("Cannot create " + journalDir);
+        }
+        recover();
+        synchronized (journalMonitor) {
+            journal = openJournal();
+        }
+    }
+
+    public void close() {
+        flushNow();
+        synchronized (journalMonitor) {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    logger.warning("Failed to close counter journal: " + e.getMessage());
+                }
+                journal = null;
+            }
+        }
+    }
+
+    public Snapshot snapshot(long nationId) {
+        flushLock.readLock().lock();
+        try {
+            Counters current = counters(nationId);
+            synchronized (current) {
+                return new Snapshot(current.exp, current.bankBalance, current.score);
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public Nation overlay(Nation nation) {
+        Snapshot snapshot = snapshot(nation.id());
+        return new Nation(
+            nation.id(),
+            nation.name(),
+            nation.ownerUuid(),
+            nation.level(),
+            snapshot.exp(),
+            snapshot.bankBalance(),
+            (int) snapshot.score()
+        );
+    }
+
+    public void addExp(long nationId, long amount) {
+        mutate(nationId, amount, 0L, 0L, null, null);
+    }
+
+    public void addScore(long nationId, long amount) {
+        mutate(nationId, 0L, 0L, amount, null, null);
+    }
+
+    public void writeScores(Connection connection, Map<Long, Long> scores) throws Exception {
+        if (scores.isEmpty()) {
+            return;
+        }
+        List<NationCounterRepository.CounterDelta> deltas = new ArrayList<>(scores.size());
+        scores.forEach((nationId, score) -> deltas.add(new NationCounterRepository.CounterDelta(nationId, 0L, 0L, score)));
+        counterRepository.applyDeltas(connection, deltas);
+    }
+
+    public void scoresCommitted(Map<Long, Long> scores) {
+        flushLock.readLock().lock();
+        try {
+            scores.forEach((nationId, score) -> {
+                Counters current = counters.get(nationId);
+                if (current == null) {
+                    current = counters(nationId);
+                    synchronized (current) {
+                        changeListener.countersChanged(nationId, current.exp, current.score);
+                    }
+                    return;
+                }
+                synchronized (current) {
+                    current.score += score;
+                    changeListener.countersChanged(nationId, current.exp, current.score);
+                }
+            });
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public long deposit(long nationId, long amount, UUID actorUuid) {
+        return mutate(nationId, 0L, amount, 0L, BankHistoryType.DEPOSIT, actorUuid).bankBalance();
+    }
+
+    public DeductResult deduct(long nationId, long exp, long money, BankHistoryType type, UUID actorUuid, Transaction<Boolean> commit) {
+        Counters current;
+        flushLock.readLock().lock();
+        try {
+            current = counters(nationId);
+            synchronized (current) {
+                if (current.exp - current.reservedExp < exp) {
+                    return DeductResult.NOT_ENOUGH_EXP;
+                }
+                if (current.bankBalance - current.reservedBankBalance < money) {
+                    return DeductResult.NOT_ENOUGH_MONEY;
+                }
+                current.reservedExp += exp;
+                current.reservedBankBalance += money;
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+        boolean committed = false;
+        try {
+            committed = databaseManager.withTransaction(connection -> {
+                if (!commit.run(connection)) {
+                    return false;
+                }
+                counterRepository.applyDeltas(connection, List.of(new NationCounterRepository.CounterDelta(nationId, -exp, -money, 0L)));
+                historyRepository.insertBatch(connection, List.of(new BankHistoryEntry(0L, nationId, type, money, actorUuid, Instant.now())));
+                return true;
+            });
+        } finally {
+            flushLock.readLock().lock();
+            try {
+                synchronized (current) {
+                    current.reservedExp -= exp;
+                    current.reservedBankBalance -= money;
+                    if (committed && counters.get(nationId) == current) {
+                        current.exp -= exp;
+                        current.bankBalance -= money;
+                        changeListener.countersChanged(nationId, current.exp, current.score);
+                    }
+                }
+            } finally {
+                flushLock.readLock().unlock();
+            }
+        }
+        return committed ? DeductResult.SUCCESS : DeductResult.REJECTED;
+    }
+
+    public List<BankHistoryEntry> recentHistory(long nationId, int limit) {
+        synchronized (flushMonitor) {
+            List<BankHistoryEntry> entries = new ArrayList<>();
+            Counters current = counters.get(nationId);
+            if (current != null) {
+                synchronized (current) {
+                    entries.addAll(current.pendingHistory);
+                }
+            }
+            Collections.reverse(entries);
+            if (entries.size() < limit) {
+                entries.addAll(historyRepository.listRecent(nationId, limit - entries.size()));
+            }
+            return entries.size() > limit ? List.copyOf(entries.subList(0, limit)) : entries;
+        }
+    }
+
+    public void forget(long nationId) {
+        flushLock.readLock().lock();
+        try {
+            counters.remove(nationId);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public int dirtyNations() {
+        int dirty = 0;
+        for (Counters current : counters.values()) {
+            synchronized (current) {
+                if (current.dirty) {
+                    dirty++;
+                }
+            }
+        }
+        return dirty;
+    }
+
+    public CompletableFuture<Void> flush() {
+        return CompletableFuture.runAsync(this::flushNow, dbExecutor);
+    }
+
+    public void flushNow() {
+        synchronized (flushMonitor) {
+            List<NationCounterRepository.CounterDelta> deltas = new ArrayList<>();
+            List<BankHistoryEntry> history = new ArrayList<>();
+            long checkpoint;
+            flushLock.writeLock().lock();
+            try {
+                for (Map.Entry<Long, Counters> entry : counters.entrySet()) {
+                    Counters current = entry.getValue();
+                    synchronized (current) {
+                        if (!current.dirty) {
+                            continue;
+                        }
+                        deltas.add(new NationCounterRepository.CounterDelta(
+                            entry.getKey(),
+                            current.pendingExp,
+                            current.pendingBankBalance,
+                            current.pendingScore
+                        ));
+                        history.addAll(current.pendingHistory);
+                        current.clearPending();
+                    }
+                }
+                if (deltas.isEmpty()) {
+                    return;
+                }
+                checkpoint = sequence.get();
+                rotateJournal(checkpoint);
+            } finally {
+                flushLock.writeLock().unlock();
+            }
+            try {
+                databaseManager.withTransaction(connection -> {
+                    counterRepository.applyDeltas(connection, deltas);
+                    if (!history.isEmpty()) {
+                        historyRepository.insertBatch(connection, history);
+                    }
+                    counterRepository.saveCheckpoint(connection, checkpoint);
+                    return null;
+                });
+                deleteRotatedJournals();
+            } catch (RuntimeException e) {
+                restore(deltas, history);
+                logger.warning("Failed to flush nation counters, will retry: " + e.getMessage());
+            }
+        }
+    }
+
+    private Snapshot mutate(long nationId, long exp, long bankBalance, long score, BankHistoryType type, UUID actorUuid) {
+        flushLock.readLock().lock();
+        try {
+            Counters current = counters(nationId);
+            synchronized (current) {
+                record(current, nationId, exp, bankBalance, score, type, actorUuid, Math.abs(bankBalance));
+                return new Snapshot(current.exp, current.bankBalance, current.score);
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private void record(
+        Counters current,
+        long nationId,
+        long exp,
+        long bankBalance,
+        long score,
+        BankHistoryType type,
+        UUID actorUuid,
+        long historyAmount
+    ) {
+        Instant now = Instant.now();
+        long seq = sequence.incrementAndGet();
+        appendJournal(seq, nationId, exp, bankBalance, score, type, actorUuid, historyAmount, now);
+        current.exp += exp;
+        current.bankBalance += bankBalance;
+        current.score += score;
+        current.pendingExp += exp;
+        current.pendingBankBalance += bankBalance;
+        current.pendingScore += score;
+        if (type != null) {
+            current.pendingHistory.add(new BankHistoryEntry(0L, nationId, type, historyAmount, actorUuid, now));
+        }
+        current.dirty = true;
+        changeListener.countersChanged(nationId, current.exp, current.score);
+    }
+
+    private Counters counters(long nationId) {
+        Counters cached = counters.get(nationId);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<Nation> nation = nationRepository.findById(nationId);
+        Counters loaded = new Counters();
+        nation.ifPresent(value -> {
+            loaded.exp = value.exp();
+            loaded.bankBalance = value.bankBalance();
+            loaded.score = value.score();
+        });
+        Counters existing = counters.putIfAbsent(nationId, loaded);
+        return existing == null ? loaded : existing;
+    }
+
+    private void restore(List<NationCounterRepository.CounterDelta> deltas, List<BankHistoryEntry> history) {
+        flushLock.readLock().lock();
+        try {
+            Map<Long, List<BankHistoryEntry>> historyByNation = new LinkedHashMap<>();
+            for (BankHistoryEntry entry : history) {
+                historyByNation.computeIfAbsent(entry.nationId(), key -> new ArrayList<>()).add(entry);
+            }
+            for (NationCounterRepository.CounterDelta delta : deltas) {
+                Counters current = counters.get(delta.nationId());
+                if (current == null) {
+                    continue;
+                }
+                synchronized (current) {
+                    current.pendingExp += delta.exp();
+                    current.pendingBankBalance += delta.bankBalance();
+                    current.pendingScore += delta.score();
+                    current.pendingHistory.addAll(0, historyByNation.getOrDefault(delta.nationId(), List.of()));
+                    current.dirty = true;
+                }
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private void recover() {
+        long checkpoint = counterRepository.getCheckpoint();
+        long maxSequence = checkpoint;
+        Map<Long, long[]> deltas = new LinkedHashMap<>();
+        List<BankHistoryEntry> history = new ArrayList<>();
+        for (File file : journalFiles()) {
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    JournalEntry entry = JournalEntry.parse(line);
+                    if (entry == null || entry.sequence() <= checkpoint) {
+                        continue;
+                    }
+                    maxSequence = Math.max(maxSequence, entry.sequence());
+                    long[] sum = deltas.computeIfAbsent(entry.nationId(), key -> new long[3]);
+                    sum[0] += entry.exp();
+                    sum[1] += entry.bankBalance();
+                    sum[2] += entry.score();
+                    if (entry.type() != null) {
+                        history.add(new BankHistoryEntry(
+                            0L,
+                            entry.nationId(),
+                            entry.type(),
+                            entry.historyAmount(),
+                            entry.actorUuid(),
+                            entry.createdAt()
+                        ));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (!deltas.isEmpty()) {
+            List<NationCounterRepository.CounterDelta> replay = new ArrayList<>();
+            deltas.forEach((nationId, sum) -> replay.add(new NationCounterRepository.CounterDelta(nationId, sum[0], sum[1], sum[2])));
+            long finalSequence = maxSequence;
+            databaseManager.withTransaction(connection -> {
+                counterRepository.applyDeltas(connection, replay);
+                if (!history.isEmpty()) {
+                    historyRepository.insertBatch(connection, history);
+                }
+                counterRepository.saveCheckpoint(connection, finalSequence);
+                return null;
+            });
+            logger.info("Replayed " + replay.size() + " nation counter deltas from the journal.");
+        }
+        for (File file : journalFiles()) {
+            if (!file.delete()) {
+                logger.warning("Failed to delete counter journal " + file.getName());
+            }
+        }
+        sequence.set(maxSequence);
+    }
+
+    private void appendJournal(
+        long seq,
+        long nationId,
+        long exp,
+        long bankBalance,
+        long score,
+        BankHistoryType type,
+        UUID actorUuid,
+        long historyAmount,
+        Instant createdAt
+    ) {
+        String line = new JournalEntry(seq, nationId, exp, bankBalance, score, type, actorUuid, historyAmount, createdAt).format();
+        synchronized (journalMonitor) {
+            if (journal == null) {
+                throw new IllegalStateException("Counter journal is not open");
+            }
+            try {
+                journal.write(line);
+                journal.newLine();
+                journal.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void rotateJournal(long checkpoint) {
+        synchronized (journalMonitor) {
+            try {
+                if (journal != null) {
+                    journal.close();
+                }
+                File active = new File(journalDir, ACTIVE_JOURNAL);
+                if (active.exists() && !active.renameTo(new File(journalDir, "flushed-" + checkpoint + ".log"))) {
+                    throw new IOException("Cannot rotate " + active);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                journal = openJournal();
+            }
+        }
+    }
+
+    private void deleteRotatedJournals() {
+        for (File file : journalFiles()) {
+            if (!file.getName().equals(ACTIVE_JOURNAL) && !file.delete()) {
+                logger.warning("Failed to delete counter journal " + file.getName());
+            }
+        }
+    }
+
+    private BufferedWriter openJournal() {
+        try {
+            return Files.newBufferedWriter(
+                new File(journalDir, ACTIVE_JOURNAL).toPath(),
+                StandardCharsets.UTF_8,
+                java.nio.file.StandardOpenOption.CREATE,
+                java.nio.file.StandardOpenOption.APPEND
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<File> journalFiles() {
+        File[] files = journalDir.listFiles((dir, name) -> name.endsWith(".log"));
+        if (files == null) {
+            return List.of();
+        }
+        Arrays.sort(files);
+        return List.of(files);
+    }
+
+    @FunctionalInterface
+    public interface ChangeListener {
+        void countersChanged(long nationId, long exp, long score);
+    }
+
+    public enum DeductResult {
+        SUCCESS,
+        NOT_ENOUGH_EXP,
+        NOT_ENOUGH_MONEY,
+        REJECTED
+    }
+
+    public record Snapshot(long exp, long bankBalance, long score) {
+    }
+
+    private static final class Counters {
+        private long exp;
+        private long bankBalance;
+        private long score;
+        private long pendingExp;
+        private long pendingBankBalance;
+        private long pendingScore;
+        private long reservedExp;
+        private long reservedBankBalance;
+        private final List<BankHistoryEntry> pendingHistory = new ArrayList<>();
+        private boolean dirty;
+
+        private void clearPending() {
+            pendingExp = 0L;
+            pendingBankBalance = 0L;
+            pendingScore = 0L;
+            pendingHistory.clear();
+            dirty = false;
+        }
+    }
+
+    private record JournalEntry(
+        long sequence,
+        long nationId,
+        long exp,
+        long bankBalance,
+        long score,
+        BankHistoryType type,
+        UUID actorUuid,
+        long historyAmount,
+        Instant createdAt
+    ) {
+        private String format() {
+            return sequence + "," + nationId + "," + exp + "," + bankBalance + "," + score + ","
+                + (type == null ? "-" : type.name()) + ","
+                + (actorUuid == null ? "-" : actorUuid.toString()) + ","
+                + historyAmount + "," + createdAt.toEpochMilli();
+        }
+
+        private static JournalEntry parse(String line) {
+            String[] parts = line.split(",");
+            if (parts.length != 9) {
+                return null;
+            }
+            try {
+                return new JournalEntry(
+                    Long.parseLong(parts[0]),
+                    Long.parseLong(parts[1]),
+                    Long.parseLong(parts[2]),
+                    Long.parseLong(parts[3]),
+                    Long.parseLong(parts[4]),
+                    "-".equals(parts[5]) ? null : BankHistoryType.valueOf(parts[5]),
+                    "-".equals(parts[6]) ? null : UUID.fromString(parts[6]),
+                    Long.parseLong(parts[7]),
+                    Instant.ofEpochMilli(Long.parseLong(parts[8]))
+                );
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package kr.lunaf.nationSystem.service;
+
+import kr.lunaf.nationSystem.domain.Nation;
+import kr.lunaf.nationSystem.domain.NationMember;
+import kr.lunaf.nationSystem.domain.NationMembership;
+import kr.lunaf.nationSystem.domain.NationSettings;
+import kr.lunaf.nationSystem.repository.NationMemberRepository;
+import kr.lunaf.nationSystem.repository.NationRepository;
+import kr.lunaf.nationSystem.repository.NationSettingsRepository;
+import kr.lunaf.nationSystem.repository.PlayerSessionRepository.PlayerSession;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class NationDirectory {
+    private final NationRepository nationRepository;
+    private final NationMemberRepository memberRepository;
+    private final NationSettingsRepository settingsRepository;
+    private final OnlineRoster onlineRoster;
+    private final Executor loadExecutor;
+    private final Map<UUID, Optional<NationMember>> members = new ConcurrentHashMap<>();
+    private final Map<Long, Optional<Nation>> nations = new ConcurrentHashMap<>();
+    private final Map<String, Long> nameIndex = new ConcurrentHashMap<>();
+    private final Map<Long, List<UUID>> rosters = new ConcurrentHashMap<>();
+    private final Map<Long, NationSettings> settings = new ConcurrentHashMap<>();
+    private final Set<UUID> loadingMembers = ConcurrentHashMap.newKeySet();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public NationDirectory(
+        NationRepository nationRepository,
+        NationMemberRepository memberRepository,
+        NationSettingsRepository settingsRepository,
+        OnlineRoster onlineRoster,
+        Executor loadExecutor
+    ) {
+        this.nationRepository = nationRepository;
+        this.memberRepository = memberRepository;
+        this.settingsRepository = settingsRepository;
+        this.onlineRoster = onlineRoster;
+        this.loadExecutor = loadExecutor;
+    }
+
+    public Optional<NationMember> findMember(UUID playerUuid) {
+        Optional<NationMember> cached = members.get(playerUuid);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        return load(members, playerUuid, () -> memberRepository.findByPlayer(playerUuid));
+    }
+
+    public Optional<Nation> findNation(long nationId) {
+        Optional<Nation> cached = nations.get(nationId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        return load(nations, nationId, () -> nationRepository.findById(nationId));
+    }
+
+    public void loadNames() {
+        Map<Long, String> names = nationRepository.listNames();
+        nameIndex.clear();
+        for (Map.Entry<Long, String> entry : names.entrySet()) {
+            nameIndex.put(nameKey(entry.getValue()), entry.getKey());
+        }
+    }
+
+    public void loadSettings() {
+        List<NationSettings> loaded = settingsRepository.listAll();
+        settings.clear();
+        for (NationSettings entry : loaded) {
+            settings.put(entry.nationId(), entry);
+        }
+    }
+
+    public NationSettings settings(long nationId) {
+        NationSettings cached = settings.get(nationId);
+        return cached == null ? defaultSettings(nationId) : cached;
+    }
+
+    public void settingsChanged(NationSettings updated) {
+        settings.put(updated.nationId(), updated);
+    }
+
+    public boolean isNameTaken(String name) {
+        return nameIndex.containsKey(nameKey(name));
+    }
+
+    public Optional<Nation> findNationByName(String name) {
+        Long nationId = nameIndex.get(nameKey(name));
+        if (nationId == null) {
+            hits.increment();
+            return Optional.empty();
+        }
+        return findNation(nationId);
+    }
+
+    public List<UUID> memberUuids(long nationId) {
+        List<UUID> cached = rosters.get(nationId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        return load(rosters, nationId, () -> List.copyOf(memberRepository.listMemberUuids(nationId)));
+    }
+
+    public int memberCount(long nationId) {
+        return memberUuids(nationId).size();
+    }
+
+    public Nation cachedNation(long nationId) {
+        Optional<Nation> nation = nations.get(nationId);
+        return nation == null ? null : nation.orElse(null);
+    }
+
+    public NationMember cachedMember(UUID playerUuid) {
+        Optional<NationMember> member = members.get(playerUuid);
+        return member == null ? null : member.orElse(null);
+    }
+
+    public NationMember cachedMemberOrLoad(UUID playerUuid) {
+        Optional<NationMember> member = members.get(playerUuid);
+        if (member != null) {
+            return member.orElse(null);
+        }
+        if (loadingMembers.add(playerUuid)) {
+            try {
+                loadExecutor.execute(() -> {
+                    try {
+                        findMember(playerUuid);
+                    } finally {
+                        loadingMembers.remove(playerUuid);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                loadingMembers.remove(playerUuid);
+            }
+        }
+        return null;
+    }
+
+    public NationMembership cachedMembership(UUID playerUuid) {
+        Optional<NationMember> member = members.get(playerUuid);
+        if (member == null || member.isEmpty()) {
+            return null;
+        }
+        Optional<Nation> nation = nations.get(member.get().nationId());
+        if (nation == null || nation.isEmpty()) {
+            return null;
+        }
+        return toMembership(member.get(), nation.get());
+    }
+
+    public Optional<NationMembership> findMembership(UUID playerUuid) {
+        return findMember(playerUuid).flatMap(member -> findNation(member.nationId()).map(nation -> toMembership(member, nation)));
+    }
+
+    public boolean isMemberCached(UUID playerUuid) {
+        return members.containsKey(playerUuid);
+    }
+
+    public void preload(PlayerSession session) {
+        members.put(session.playerUuid(), session.member());
+        session.nation().ifPresent(nation -> nations.putIfAbsent(nation.id(), Optional.of(nation)));
+        session.member().ifPresent(member -> onlineRoster.assign(member.playerUuid(), member.nationId()));
+    }
+
+    public void nationCreated(Nation nation, NationMember owner) {
+        invalidations.incrementAndGet();
+        nations.put(nation.id(), Optional.of(nation));
+        nameIndex.put(nameKey(nation.name()), nation.id());
+        settings.put(nation.id(), defaultSettings(nation.id()));
+        memberJoined(owner);
+    }
+
+    public void memberJoined(NationMember member) {
+        invalidations.incrementAndGet();
+        members.put(member.playerUuid(), Optional.of(member));
+        rosters.remove(member.nationId());
+        onlineRoster.assign(member.playerUuid(), member.nationId());
+    }
+
+    public void memberLeft(long nationId, UUID playerUuid) {
+        invalidations.incrementAndGet();
+        members.put(playerUuid, Optional.empty());
+        rosters.remove(nationId);
+        onlineRoster.unassign(playerUuid);
+    }
+
+    public void invalidateNation(long nationId) {
+        invalidations.incrementAndGet();
+        nations.remove(nationId);
+        rosters.remove(nationId);
+    }
+
+    public void nationsDeleted(Collection<Long> nationIds, Collection<UUID> memberUuids) {
+        invalidations.incrementAndGet();
+        for (long nationId : nationIds) {
+            nations.put(nationId, Optional.empty());
+            rosters.remove(nationId);
+            settings.remove(nationId);
+        }
+        nameIndex.values().removeIf(nationIds::contains);
+        for (UUID memberUuid : memberUuids) {
+            members.put(memberUuid, Optional.empty());
+        }
+        onlineRoster.unassignAll(memberUuids);
+    }
+
+    public void invalidatePlayer(UUID playerUuid) {
+        invalidations.incrementAndGet();
+        members.remove(playerUuid);
+    }
+
+    public void clear() {
+        invalidations.incrementAndGet();
+        members.clear();
+        nations.clear();
+        rosters.clear();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), members.size(), nations.size(), rosters.size(), nameIndex.size());
+    }
+
+    private <K, V> V load(Map<K, V> cache, K key, Supplier<V> loader) {
+        misses.increment();
+        long generation = invalidations.get();
+        V loaded = loader.get();
+        V existing = cache.putIfAbsent(key, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        if (invalidations.get() != generation) {
+            cache.remove(key, loaded);
+        }
+        return loaded;
+    }
+
+    private NationMembership toMembership(NationMember member, Nation nation) {
+        return new NationMembership(nation.id(), nation.name(), member.role(), nation.level());
+    }
+
+    private static NationSettings defaultSettings(long nationId) {
+        return new NationSettings(nationId, false, false, false);
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public record Stats(long hits, long misses, int members, int nations, int rosters, int names) {
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : hits / (double) total;
+        }
+    }
+}
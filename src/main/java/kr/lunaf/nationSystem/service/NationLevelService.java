@@ -1,13 +1,10 @@
 package kr.lunaf.nationSystem.service;
 
 import kr.lunaf.nationSystem.config.PluginConfig;
-import kr.lunaf.nationSystem.db.DatabaseManager;
 import kr.lunaf.nationSystem.domain.BankHistoryType;
 import kr.lunaf.nationSystem.domain.Nation;
 import kr.lunaf.nationSystem.domain.NationMember;
 import kr.lunaf.nationSystem.domain.NationRole;
-import kr.lunaf.nationSystem.repository.BankHistoryRepository;
-import kr.lunaf.nationSystem.repository.NationMemberRepository;
 import kr.lunaf.nationSystem.repository.NationRepository;
 
 import java.util.Optional;
@@ -17,48 +14,46 @@ import java.util.concurrent.ExecutorService;
 
 public class NationLevelService {
     private final PluginConfig pluginConfig;
-    private final DatabaseManager databaseManager;
     private final NationRepository nationRepository;
-    private final NationMemberRepository memberRepository;
-    private final BankHistoryRepository historyRepository;
-    private final NationService nationService;
+    private final NationDirectory directory;
+    private final NationCounterStore counterStore;
+    private final LeaderboardService leaderboard;
     private final ExecutorService dbExecutor;
 
     public NationLevelService(
         PluginConfig pluginConfig,
-        DatabaseManager databaseManager,
         NationRepository nationRepository,
-        NationMemberRepository memberRepository,
-        BankHistoryRepository historyRepository,
-        NationService nationService,
+        NationDirectory directory,
+        NationCounterStore counterStore,
+        LeaderboardService leaderboard,
         ExecutorService dbExecutor
     ) {
         this.pluginConfig = pluginConfig;
-        this.databaseManager = databaseManager;
         this.nationRepository = nationRepository;
-        this.memberRepository = memberRepository;
-        this.historyRepository = historyRepository;
-        this.nationService = nationService;
+        this.directory = directory;
+        this.counterStore = counterStore;
+        this.leaderboard = leaderboard;
         this.dbExecutor = dbExecutor;
     }
 
     public CompletableFuture<ServiceResult<LevelInfo>> getLevelInfo(UUID playerUuid) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
-            Optional<Nation> nation = nationRepository.findById(member.get().nationId());
+            Optional<Nation> nation = directory.findNation(member.get().nationId());
             if (nation.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
-            int currentLevel = nation.get().level();
+            Nation current = counterStore.overlay(nation.get());
+            int currentLevel = current.level();
             long expCost = pluginConfig.levelUpExpCost(currentLevel);
             long moneyCost = pluginConfig.levelUpMoneyCost(currentLevel);
             return ServiceResult.success(new LevelInfo(
                 currentLevel,
-                nation.get().exp(),
-                nation.get().bankBalance(),
+                current.exp(),
+                current.bankBalance(),
                 expCost,
                 moneyCost,
                 pluginConfig.maxLevel()
@@ -68,14 +63,14 @@ public class NationLevelService {
 
     public CompletableFuture<ServiceResult<LevelInfo>> levelUp(UUID playerUuid) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
             if (member.get().role() != NationRole.OWNER) {
                 return ServiceResult.failure(Status.OWNER_ONLY);
             }
-            Optional<Nation> nation = nationRepository.findById(member.get().nationId());
+            Optional<Nation> nation = directory.findNation(member.get().nationId());
             if (nation.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
@@ -85,22 +80,36 @@ public class NationLevelService {
             if (expCost < 0 || moneyCost < 0) {
                 return ServiceResult.failure(Status.MAX_LEVEL);
             }
-            if (nation.get().exp() < expCost) {
-                return ServiceResult.failure(Status.NOT_ENOUGH_EXP);
-            }
-            if (nation.get().bankBalance() < moneyCost) {
-                return ServiceResult.failure(Status.NOT_ENOUGH_MONEY);
+            long nationId = nation.get().id();
+            NationCounterStore.DeductResult deducted = counterStore.deduct(
+                nationId,
+                expCost,
+                moneyCost,
+                BankHistoryType.LEVEL_UP,
+                member.get().playerUuid(),
+                connection -> nationRepository.incrementLevel(connection, nationId, currentLevel)
+            );
+            switch (deducted) {
+                case NOT_ENOUGH_EXP -> {
+                    return ServiceResult.failure(Status.NOT_ENOUGH_EXP);
+                }
+                case NOT_ENOUGH_MONEY -> {
+                    return ServiceResult.failure(Status.NOT_ENOUGH_MONEY);
+                }
+                case REJECTED -> {
+                    return ServiceResult.failure(Status.ERROR);
+                }
+                default -> {
+                }
             }
-            databaseManager.withTransaction(connection -> {
-                nationRepository.levelUpNation(connection, nation.get().id(), expCost, moneyCost);
-                historyRepository.insert(connection, nation.get().id(), BankHistoryType.LEVEL_UP, moneyCost, member.get().playerUuid());
-                return null;
-            });
-            nationService.clearMembershipsForNation(nation.get().id());
+            directory.invalidateNation(nationId);
+            directory.findNation(nationId);
+            leaderboard.levelChanged(nationId, currentLevel + 1);
+            NationCounterStore.Snapshot snapshot = counterStore.snapshot(nationId);
             return ServiceResult.success(new LevelInfo(
                 currentLevel + 1,
-                nation.get().exp() - expCost,
-                nation.get().bankBalance() - moneyCost,
+                snapshot.exp(),
+                snapshot.bankBalance(),
                 pluginConfig.levelUpExpCost(currentLevel + 1),
                 pluginConfig.levelUpMoneyCost(currentLevel + 1),
                 pluginConfig.maxLevel()
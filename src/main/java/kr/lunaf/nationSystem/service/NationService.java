@@ -6,14 +6,19 @@ import kr.lunaf.nationSystem.domain.Nation;
 import kr.lunaf.nationSystem.domain.NationMember;
 import kr.lunaf.nationSystem.domain.NationMembership;
 import kr.lunaf.nationSystem.domain.NationRole;
+import kr.lunaf.nationSystem.domain.NationSettings;
 import kr.lunaf.nationSystem.repository.NationMemberRepository;
 import kr.lunaf.nationSystem.repository.NationRepository;
 import kr.lunaf.nationSystem.repository.NationSettingsRepository;
+import kr.lunaf.nationSystem.repository.PlayerSessionRepository;
+import kr.lunaf.nationSystem.repository.PlayerSessionRepository.PlayerSession;
 import kr.lunaf.nationSystem.repository.PlayerSettingsRepository;
 import kr.lunaf.nationSystem.service.InvitationService.Invite;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,17 +28,23 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 
 public class NationService {
+    private static final int PRELOAD_BATCH_SIZE = 500;
+
     private final PluginConfig pluginConfig;
     private final DatabaseManager databaseManager;
     private final NationRepository nationRepository;
     private final NationMemberRepository memberRepository;
     private final NationSettingsRepository settingsRepository;
+    private final NationDirectory directory;
+    private final LeaderboardService leaderboard;
+    private final OnlineRoster onlineRoster;
     private final PlayerSettingsRepository playerSettingsRepository;
+    private final PlayerSessionRepository sessionRepository;
     private final InvitationService invitationService;
     private final EconomyService economyService;
     private final ExecutorService dbExecutor;
+    private final ExecutorService bulkExecutor;
     private final Executor syncExecutor;
-    private final Map<UUID, NationMembership> membershipCache = new ConcurrentHashMap<>();
     private final Map<UUID, Boolean> chatPreferenceCache = new ConcurrentHashMap<>();
 
     public NationService(
@@ -42,10 +53,15 @@ public class NationService {
         NationRepository nationRepository,
         NationMemberRepository memberRepository,
         NationSettingsRepository settingsRepository,
+        NationDirectory directory,
+        LeaderboardService leaderboard,
+        OnlineRoster onlineRoster,
         PlayerSettingsRepository playerSettingsRepository,
+        PlayerSessionRepository sessionRepository,
         InvitationService invitationService,
         EconomyService economyService,
         ExecutorService dbExecutor,
+        ExecutorService bulkExecutor,
         Executor syncExecutor
     ) {
         this.pluginConfig = pluginConfig;
@@ -53,73 +69,79 @@ public class NationService {
         this.nationRepository = nationRepository;
         this.memberRepository = memberRepository;
         this.settingsRepository = settingsRepository;
+        this.directory = directory;
+        this.leaderboard = leaderboard;
+        this.onlineRoster = onlineRoster;
         this.playerSettingsRepository = playerSettingsRepository;
+        this.sessionRepository = sessionRepository;
         this.invitationService = invitationService;
         this.economyService = economyService;
         this.dbExecutor = dbExecutor;
+        this.bulkExecutor = bulkExecutor;
         this.syncExecutor = syncExecutor;
     }
 
     public CompletableFuture<ServiceResult<NationMembership>> createNation(UUID playerUuid, String name) {
+        long cost = pluginConfig.createCost();
         return CompletableFuture.supplyAsync(() -> {
-            if (memberRepository.findByPlayer(playerUuid).isPresent()) {
-                return ServiceResult.failure(Status.ALREADY_IN_NATION);
+            if (directory.findMember(playerUuid).isPresent()) {
+                return ServiceResult.<Void>failure(Status.ALREADY_IN_NATION);
             }
-            if (nationRepository.findByName(name).isPresent()) {
-                return ServiceResult.failure(Status.NAME_TAKEN);
+            if (directory.findNationByName(name).isPresent()) {
+                return ServiceResult.<Void>failure(Status.NAME_TAKEN);
             }
-            long cost = pluginConfig.createCost();
-            if (cost > 0) {
-                if (!economyService.isAvailable()) {
-                    return ServiceResult.failure(Status.ECONOMY_UNAVAILABLE);
-                }
-                boolean withdrawn = economyService.withdrawSync(playerUuid, cost, syncExecutor).join();
+            if (cost > 0 && !economyService.isAvailable()) {
+                return ServiceResult.<Void>failure(Status.ECONOMY_UNAVAILABLE);
+            }
+            return ServiceResult.<Void>success(null);
+        }, dbExecutor).thenCompose(result -> {
+            if (!result.isSuccess()) {
+                return CompletableFuture.completedFuture(ServiceResult.<NationMembership>failure(result.status()));
+            }
+            CompletableFuture<Boolean> payment = cost > 0
+                ? economyService.withdrawSync(playerUuid, cost, syncExecutor)
+                : CompletableFuture.completedFuture(true);
+            return payment.thenApplyAsync(withdrawn -> {
                 if (!withdrawn) {
-                    return ServiceResult.failure(Status.INSUFFICIENT_FUNDS);
+                    return ServiceResult.<NationMembership>failure(Status.INSUFFICIENT_FUNDS);
                 }
+                return insertNation(playerUuid, name, cost);
+            }, dbExecutor);
+        });
+    }
+
+    private ServiceResult<NationMembership> insertNation(UUID playerUuid, String name, long cost) {
+        try {
+            long nationId = databaseManager.withTransaction(connection -> {
+                long createdId = nationRepository.insertNation(
+                    connection,
+                    new Nation(0L, name, playerUuid, 1, 0L, 0L, 0)
+                );
+                settingsRepository.insertDefaults(connection, createdId);
+                memberRepository.insertMember(connection, createdId, playerUuid, NationRole.OWNER);
+                return createdId;
+            });
+            Nation created = new Nation(nationId, name, playerUuid, 1, 0L, 0L, 0);
+            directory.nationCreated(created, new NationMember(nationId, playerUuid, NationRole.OWNER));
+            leaderboard.nationCreated(created);
+            NationMembership membership = new NationMembership(nationId, name, NationRole.OWNER, 1);
+            return ServiceResult.success(membership);
+        } catch (Exception e) {
+            if (cost > 0) {
+                economyService.depositSync(playerUuid, cost, syncExecutor);
             }
-            try {
-                long nationId = databaseManager.withTransaction(connection -> {
-                    long createdId = nationRepository.insertNation(
-                        connection,
-                        new Nation(0L, name, playerUuid, 1, 0L, 0L, 0)
-                    );
-                    settingsRepository.insertDefaults(connection, createdId);
-                    memberRepository.insertMember(connection, createdId, playerUuid, NationRole.OWNER);
-                    return createdId;
-                });
-                NationMembership membership = new NationMembership(nationId, name, NationRole.OWNER, 1);
-                membershipCache.put(playerUuid, membership);
-                return ServiceResult.success(membership);
-            } catch (Exception e) {
-                return ServiceResult.failure(Status.ERROR);
-            }
-        }, dbExecutor);
+            return ServiceResult.failure(Status.ERROR);
+        }
     }
 
     public CompletableFuture<ServiceResult<NationMembership>> getMembership(UUID playerUuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            NationMembership cached = membershipCache.get(playerUuid);
-            if (cached != null) {
-                return ServiceResult.success(cached);
-            }
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
-            if (member.isEmpty()) {
-                return ServiceResult.failure(Status.NOT_IN_NATION);
-            }
-            Optional<Nation> nation = nationRepository.findById(member.get().nationId());
-            if (nation.isEmpty()) {
-                return ServiceResult.failure(Status.NOT_IN_NATION);
-            }
-            NationMembership membership = new NationMembership(
-                nation.get().id(),
-                nation.get().name(),
-                member.get().role(),
-                nation.get().level()
-            );
-            membershipCache.put(playerUuid, membership);
-            return ServiceResult.success(membership);
-        }, dbExecutor);
+        NationMembership cached = directory.cachedMembership(playerUuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(ServiceResult.success(cached));
+        }
+        return CompletableFuture.supplyAsync(() -> directory.findMembership(playerUuid)
+            .map(ServiceResult::success)
+            .orElseGet(() -> ServiceResult.failure(Status.NOT_IN_NATION)), dbExecutor);
     }
 
     public CompletableFuture<ServiceResult<String>> invite(UUID inviterUuid, UUID targetUuid) {
@@ -127,22 +149,22 @@ public class NationService {
             if (inviterUuid.equals(targetUuid)) {
                 return ServiceResult.failure(Status.SELF_INVITE);
             }
-            Optional<NationMember> inviterMember = memberRepository.findByPlayer(inviterUuid);
+            Optional<NationMember> inviterMember = directory.findMember(inviterUuid);
             if (inviterMember.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
-            if (memberRepository.findByPlayer(targetUuid).isPresent()) {
+            if (directory.findMember(targetUuid).isPresent()) {
                 return ServiceResult.failure(Status.TARGET_IN_NATION);
             }
             NationRole role = inviterMember.get().role();
             if (role != NationRole.OWNER && role != NationRole.SUBKING) {
                 return ServiceResult.failure(Status.OWNER_ONLY);
             }
-            Optional<Nation> nation = nationRepository.findById(inviterMember.get().nationId());
+            Optional<Nation> nation = directory.findNation(inviterMember.get().nationId());
             if (nation.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
-            int memberCount = nationRepository.countMembers(nation.get().id());
+            int memberCount = directory.memberCount(nation.get().id());
             if (memberCount >= pluginConfig.maxMembersForLevel(nation.get().level())) {
                 return ServiceResult.failure(Status.NATION_FULL);
             }
@@ -153,7 +175,7 @@ public class NationService {
 
     public CompletableFuture<ServiceResult<NationMembership>> acceptInvite(UUID playerUuid) {
         return CompletableFuture.supplyAsync(() -> {
-            if (memberRepository.findByPlayer(playerUuid).isPresent()) {
+            if (directory.findMember(playerUuid).isPresent()) {
                 return ServiceResult.failure(Status.ALREADY_IN_NATION);
             }
             Optional<Invite> invite = invitationService.consumeInvite(playerUuid);
@@ -161,11 +183,11 @@ public class NationService {
                 return ServiceResult.failure(Status.INVITE_NOT_FOUND);
             }
             Invite data = invite.get();
-            Optional<Nation> nation = nationRepository.findById(data.nationId());
+            Optional<Nation> nation = directory.findNation(data.nationId());
             if (nation.isEmpty()) {
                 return ServiceResult.failure(Status.INVITE_NOT_FOUND);
             }
-            int memberCount = nationRepository.countMembers(nation.get().id());
+            int memberCount = directory.memberCount(nation.get().id());
             if (memberCount >= pluginConfig.maxMembersForLevel(nation.get().level())) {
                 return ServiceResult.failure(Status.NATION_FULL);
             }
@@ -174,13 +196,13 @@ public class NationService {
                     memberRepository.insertMember(connection, data.nationId(), playerUuid, NationRole.MEMBER);
                     return null;
                 });
+                directory.memberJoined(new NationMember(data.nationId(), playerUuid, NationRole.MEMBER));
                 NationMembership membership = new NationMembership(
                     data.nationId(),
                     data.nationName(),
                     NationRole.MEMBER,
                     nation.get().level()
                 );
-                membershipCache.put(playerUuid, membership);
                 return ServiceResult.success(membership);
             } catch (Exception e) {
                 return ServiceResult.failure(Status.ERROR);
@@ -200,7 +222,7 @@ public class NationService {
 
     public CompletableFuture<ServiceResult<Void>> leave(UUID playerUuid) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
@@ -210,9 +232,11 @@ public class NationService {
             try {
                 databaseManager.withTransaction(connection -> {
                     memberRepository.deleteMember(connection, member.get().nationId(), playerUuid);
+                    playerSettingsRepository.setNationChatEnabled(connection, playerUuid, false);
                     return null;
                 });
-                membershipCache.remove(playerUuid);
+                directory.memberLeft(member.get().nationId(), playerUuid);
+                chatPreferenceCache.computeIfPresent(playerUuid, (key, enabled) -> false);
                 return ServiceResult.success(null);
             } catch (Exception e) {
                 return ServiceResult.failure(Status.ERROR);
@@ -222,7 +246,7 @@ public class NationService {
 
     public CompletableFuture<ServiceResult<Boolean>> toggleChat(UUID playerUuid) {
         return CompletableFuture.supplyAsync(() -> {
-            boolean current = chatPreferenceCache.getOrDefault(playerUuid, false);
+            boolean current = chatPreferenceCache.computeIfAbsent(playerUuid, this::loadChatPreference);
             boolean next = !current;
             try {
                 databaseManager.withTransaction(connection -> {
@@ -237,78 +261,138 @@ public class NationService {
         }, dbExecutor);
     }
 
+    public CompletableFuture<ServiceResult<Boolean>> togglePvp(UUID playerUuid) {
+        return CompletableFuture.supplyAsync(() -> {
+            Optional<NationMember> member = directory.findMember(playerUuid);
+            if (member.isEmpty()) {
+                return ServiceResult.failure(Status.NOT_IN_NATION);
+            }
+            if (member.get().role() != NationRole.OWNER) {
+                return ServiceResult.failure(Status.OWNER_ONLY);
+            }
+            long nationId = member.get().nationId();
+            NationSettings current = directory.settings(nationId);
+            boolean next = !current.pvpEnabled();
+            try {
+                databaseManager.withTransaction(connection -> {
+                    settingsRepository.setPvpEnabled(connection, nationId, next);
+                    return null;
+                });
+                directory.settingsChanged(new NationSettings(nationId, next, current.inviteLock(), current.chatDefault()));
+                return ServiceResult.success(next);
+            } catch (Exception e) {
+                return ServiceResult.failure(Status.ERROR);
+            }
+        }, dbExecutor);
+    }
+
     public NationMembership getCachedMembership(UUID playerUuid) {
-        return membershipCache.get(playerUuid);
+        return directory.cachedMembership(playerUuid);
     }
 
     public boolean isNationChatEnabled(UUID playerUuid) {
-        Boolean cached = chatPreferenceCache.get(playerUuid);
-        if (cached != null) {
-            return cached;
+        return chatPreferenceCache.getOrDefault(playerUuid, false);
+    }
+
+    public boolean isKnownWithoutNation(UUID playerUuid) {
+        return directory.isMemberCached(playerUuid) && directory.cachedMember(playerUuid) == null;
+    }
+
+    public CompletableFuture<Void> clearNationChat(Collection<UUID> playerUuids) {
+        if (playerUuids.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
         }
-        Optional<Boolean> stored = playerSettingsRepository.getNationChatEnabled(playerUuid);
-        boolean enabled = stored.orElse(false);
-        chatPreferenceCache.put(playerUuid, enabled);
-        return enabled;
+        for (UUID playerUuid : playerUuids) {
+            chatPreferenceCache.computeIfPresent(playerUuid, (key, enabled) -> false);
+        }
+        List<UUID> pending = List.copyOf(playerUuids);
+        return CompletableFuture.runAsync(() -> databaseManager.withTransaction(connection -> {
+            playerSettingsRepository.disableNationChat(connection, pending);
+            return null;
+        }), dbExecutor);
     }
 
-    public CompletableFuture<Boolean> isNameTaken(String name) {
-        return CompletableFuture.supplyAsync(() -> nationRepository.findByName(name).isPresent(), dbExecutor);
+    public boolean isNameTaken(String name) {
+        return directory.isNameTaken(name);
     }
 
-    public void clearMembership(UUID playerUuid) {
-        membershipCache.remove(playerUuid);
+    public java.util.Set<UUID> getOnlineMemberUuids(long nationId) {
+        return onlineRoster.onlineMemberUuids(nationId);
     }
 
-    public void clearMembershipsForNation(long nationId) {
-        for (UUID memberUuid : memberRepository.listMemberUuids(nationId)) {
-            membershipCache.remove(memberUuid);
-        }
+    public int getOnlineMemberCount(long nationId) {
+        return onlineRoster.onlineCount(nationId);
     }
 
-    public CompletableFuture<Integer> getMemberCountAsync(long nationId) {
-        return CompletableFuture.supplyAsync(() -> nationRepository.countMembers(nationId), dbExecutor);
+    public void preloadSession(UUID playerUuid) {
+        applySession(sessionRepository.load(playerUuid));
     }
 
-    public void sendNationChat(UUID senderUuid, String senderName, String message) {
-        NationMembership membership = getCachedMembership(senderUuid);
-        if (membership == null) {
-            ServiceResult<NationMembership> loaded = getMembership(senderUuid).join();
-            if (!loaded.isSuccess()) {
-                return;
+    public CompletableFuture<Void> preloadOnline(Collection<UUID> playerUuids) {
+        for (UUID playerUuid : playerUuids) {
+            onlineRoster.playerJoined(playerUuid);
+        }
+        List<UUID> pending = new ArrayList<>(playerUuids);
+        return CompletableFuture.runAsync(() -> {
+            for (int from = 0; from < pending.size(); from += PRELOAD_BATCH_SIZE) {
+                List<UUID> batch = pending.subList(from, Math.min(pending.size(), from + PRELOAD_BATCH_SIZE));
+                for (PlayerSession session : sessionRepository.loadAll(batch)) {
+                    applySession(session);
+                }
             }
-            membership = loaded.data();
+        }, bulkExecutor);
+    }
+
+    public void handleJoin(UUID playerUuid) {
+        onlineRoster.playerJoined(playerUuid);
+        if (chatPreferenceCache.containsKey(playerUuid) && directory.isMemberCached(playerUuid)) {
+            directory.findMember(playerUuid).ifPresent(member -> onlineRoster.assign(playerUuid, member.nationId()));
+            return;
         }
-        long nationId = membership.nationId();
-        String formatted = pluginConfig.nationChatFormat()
+        CompletableFuture.runAsync(() -> applySession(sessionRepository.load(playerUuid)), dbExecutor);
+    }
+
+    private void applySession(PlayerSession session) {
+        chatPreferenceCache.put(session.playerUuid(), session.nationChatEnabled());
+        directory.preload(session);
+    }
+
+    public void handleQuit(UUID playerUuid) {
+        onlineRoster.playerQuit(playerUuid);
+        chatPreferenceCache.remove(playerUuid);
+    }
+
+    private boolean loadChatPreference(UUID playerUuid) {
+        return playerSettingsRepository.getNationChatEnabled(playerUuid).orElse(false);
+    }
+
+    public CompletableFuture<Integer> getMemberCountAsync(long nationId) {
+        return CompletableFuture.supplyAsync(() -> directory.memberCount(nationId), dbExecutor);
+    }
+
+    public String formatNationChat(String senderName, String message) {
+        return pluginConfig.nationChatFormat()
             .replace("%player%", senderName)
             .replace("%message%", message);
-        String finalMessage = formatted;
-        java.util.List<UUID> members = memberRepository.listMemberUuids(nationId);
-        syncExecutor.execute(() -> {
-            net.kyori.adventure.text.Component component =
-                net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer.legacyAmpersand()
-                    .deserialize(finalMessage);
-            for (UUID memberUuid : members) {
-                Player target = Bukkit.getPlayer(memberUuid);
-                if (target != null) {
-                    target.sendMessage(component);
-                }
+    }
+
+    public void sendNationChat(UUID senderUuid, String senderName, String message) {
+        getMembership(senderUuid).thenAccept(result -> {
+            if (result.isSuccess()) {
+                sendNationMessage(result.data().nationId(), formatNationChat(senderName, message));
+            } else if (result.status() == Status.NOT_IN_NATION) {
+                clearNationChat(List.of(senderUuid));
             }
         });
     }
 
     public void sendNationMessage(long nationId, String message) {
-        java.util.List<UUID> members = memberRepository.listMemberUuids(nationId);
         syncExecutor.execute(() -> {
             net.kyori.adventure.text.Component component =
                 net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer.legacyAmpersand()
                     .deserialize(message);
-            for (UUID memberUuid : members) {
-                Player target = Bukkit.getPlayer(memberUuid);
-                if (target != null) {
-                    target.sendMessage(component);
-                }
+            for (Player target : onlineRoster.onlineMembers(nationId)) {
+                target.sendMessage(component);
             }
         });
     }
@@ -0,0 +1,88 @@
+package kr.lunaf.nationSystem.service;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class OnlineRoster {
+    private final Set<UUID> onlinePlayers = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, Long> nationByPlayer = new ConcurrentHashMap<>();
+    private final Map<Long, Set<UUID>> membersByNation = new ConcurrentHashMap<>();
+
+    public synchronized void playerJoined(UUID playerUuid) {
+        onlinePlayers.add(playerUuid);
+    }
+
+    public synchronized void playerQuit(UUID playerUuid) {
+        onlinePlayers.remove(playerUuid);
+        unassign(playerUuid);
+    }
+
+    public synchronized void assign(UUID playerUuid, long nationId) {
+        if (!onlinePlayers.contains(playerUuid)) {
+            return;
+        }
+        Long previous = nationByPlayer.put(playerUuid, nationId);
+        if (previous != null && previous != nationId) {
+            removeFromNation(previous, playerUuid);
+        }
+        membersByNation.computeIfAbsent(nationId, ignored -> ConcurrentHashMap.newKeySet()).add(playerUuid);
+    }
+
+    public synchronized void unassign(UUID playerUuid) {
+        Long nationId = nationByPlayer.remove(playerUuid);
+        if (nationId != null) {
+            removeFromNation(nationId, playerUuid);
+        }
+    }
+
+    public synchronized void unassignAll(Collection<UUID> playerUuids) {
+        for (UUID playerUuid : playerUuids) {
+            unassign(playerUuid);
+        }
+    }
+
+    public Set<UUID> onlineMemberUuids(long nationId) {
+        Set<UUID> members = membersByNation.get(nationId);
+        return members == null ? Set.of() : Collections.unmodifiableSet(members);
+    }
+
+    public List<Player> onlineMembers(long nationId) {
+        Set<UUID> members = membersByNation.get(nationId);
+        if (members == null) {
+            return List.of();
+        }
+        List<Player> players = new ArrayList<>(members.size());
+        for (UUID memberUuid : members) {
+            Player player = Bukkit.getPlayer(memberUuid);
+            if (player != null) {
+                players.add(player);
+            }
+        }
+        return players;
+    }
+
+    public int onlineCount(long nationId) {
+        Set<UUID> members = membersByNation.get(nationId);
+        return members == null ? 0 : members.size();
+    }
+
+    private void removeFromNation(long nationId, UUID playerUuid) {
+        Set<UUID> members = membersByNation.get(nationId);
+        if (members == null) {
+            return;
+        }
+        members.remove(playerUuid);
+        if (members.isEmpty()) {
+            membersByNation.remove(nationId);
+        }
+    }
+}
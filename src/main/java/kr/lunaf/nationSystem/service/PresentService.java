@@ -4,8 +4,6 @@ import kr.lunaf.nationSystem.config.PluginConfig;
 import kr.lunaf.nationSystem.db.DatabaseManager;
 import kr.lunaf.nationSystem.domain.BuildingType;
 import kr.lunaf.nationSystem.domain.NationMember;
-import kr.lunaf.nationSystem.repository.NationMemberRepository;
-import kr.lunaf.nationSystem.repository.NationRepository;
 import kr.lunaf.nationSystem.repository.PresentClaimRepository;
 
 import java.time.Duration;
@@ -19,8 +17,8 @@ import java.util.concurrent.ExecutorService;
 public class PresentService {
     private final PluginConfig pluginConfig;
     private final DatabaseManager databaseManager;
-    private final NationMemberRepository memberRepository;
-    private final NationRepository nationRepository;
+    private final NationDirectory directory;
+    private final NationCounterStore counterStore;
     private final PresentClaimRepository claimRepository;
     private final BuildingService buildingService;
     private final EconomyService economyService;
@@ -30,8 +28,8 @@ public class PresentService {
     public PresentService(
         PluginConfig pluginConfig,
         DatabaseManager databaseManager,
-        NationMemberRepository memberRepository,
-        NationRepository nationRepository,
+        NationDirectory directory,
+        NationCounterStore counterStore,
         PresentClaimRepository claimRepository,
         BuildingService buildingService,
         EconomyService economyService,
@@ -40,8 +38,8 @@ public class PresentService {
     ) {
         this.pluginConfig = pluginConfig;
         this.databaseManager = databaseManager;
-        this.memberRepository = memberRepository;
-        this.nationRepository = nationRepository;
+        this.directory = directory;
+        this.counterStore = counterStore;
         this.claimRepository = claimRepository;
         this.buildingService = buildingService;
         this.economyService = economyService;
@@ -50,7 +48,7 @@ public class PresentService {
     }
 
     public CompletableFuture<ServiceResult<PresentReward>> claim(UUID playerUuid) {
-        return CompletableFuture.supplyAsync(() -> memberRepository.findByPlayer(playerUuid), dbExecutor)
+        return CompletableFuture.supplyAsync(() -> directory.findMember(playerUuid), dbExecutor)
             .thenCompose(memberOpt -> {
                 if (memberOpt.isEmpty()) {
                     return CompletableFuture.completedFuture(ServiceResult.failure(Status.NOT_IN_NATION));
@@ -61,12 +59,13 @@ public class PresentService {
                         if (!hasPresent) {
                             return CompletableFuture.completedFuture(ServiceResult.failure(Status.NO_PRESENT_BUILDING));
                         }
-                        return CompletableFuture.supplyAsync(() -> claimInternal(member, playerUuid), dbExecutor);
+                        return CompletableFuture.supplyAsync(() -> claimInternal(member), dbExecutor)
+                            .thenCompose(result -> payReward(playerUuid, result));
                     });
             });
     }
 
-    private ServiceResult<PresentReward> claimInternal(NationMember member, UUID playerUuid) {
+    private ServiceResult<PresentReward> claimInternal(NationMember member) {
         Instant now = Instant.now();
         Optional<Instant> lastClaim = claimRepository.getLastClaim(member.nationId());
         Duration cooldown = Duration.ofHours(pluginConfig.presentCooldownHours());
@@ -81,17 +80,22 @@ public class PresentService {
         long rewardExp = pluginConfig.presentRewardExp();
         databaseManager.withTransaction(connection -> {
             claimRepository.upsertLastClaim(connection, member.nationId(), now);
-            if (rewardExp > 0) {
-                nationRepository.addExp(connection, member.nationId(), rewardExp);
-            }
             return null;
         });
-        if (rewardMoney > 0 && economyService.isAvailable()) {
-            economyService.depositSync(playerUuid, rewardMoney, syncExecutor).join();
+        if (rewardExp > 0) {
+            counterStore.addExp(member.nationId(), rewardExp);
         }
         return ServiceResult.success(new PresentReward(rewardMoney, rewardExp, 0L));
     }
 
+    private CompletableFuture<ServiceResult<PresentReward>> payReward(UUID playerUuid, ServiceResult<PresentReward> result) {
+        if (!result.isSuccess() || result.data().money() <= 0 || !economyService.isAvailable()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        return economyService.depositSync(playerUuid, result.data().money(), syncExecutor)
+            .thenApply(deposited -> result);
+    }
+
     public enum Status {
         SUCCESS,
         NOT_IN_NATION,
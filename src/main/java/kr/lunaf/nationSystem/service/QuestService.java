@@ -7,62 +7,75 @@ import kr.lunaf.nationSystem.domain.DailyQuestType;
 import kr.lunaf.nationSystem.domain.NationMember;
 import kr.lunaf.nationSystem.domain.NationRole;
 import kr.lunaf.nationSystem.domain.QuestKind;
+import kr.lunaf.nationSystem.domain.WallStatus;
 import kr.lunaf.nationSystem.repository.DailyQuestRepository;
-import kr.lunaf.nationSystem.repository.NationMemberRepository;
-import kr.lunaf.nationSystem.repository.NationRepository;
-import kr.lunaf.nationSystem.repository.TerritoryRepository;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
 
 public class QuestService {
     private final QuestsConfig questsConfig;
     private final DatabaseManager databaseManager;
     private final DailyQuestRepository dailyQuestRepository;
-    private final NationMemberRepository memberRepository;
-    private final NationRepository nationRepository;
-    private final TerritoryRepository territoryRepository;
+    private final NationDirectory directory;
+    private final TerritoryIndex territoryIndex;
+    private final NationCounterStore counterStore;
     private final NationService nationService;
     private final ExecutorService dbExecutor;
+    private final ExecutorService backgroundExecutor;
+    private final Logger logger;
     private final Random random = new Random();
+    private final Map<ProgressKey, AtomicInteger> pendingProgress = new ConcurrentHashMap<>();
+    private final Map<Long, QuestDay> questDays = new ConcurrentHashMap<>();
+    private final Object questLock = new Object();
 
     public QuestService(
         QuestsConfig questsConfig,
         DatabaseManager databaseManager,
         DailyQuestRepository dailyQuestRepository,
-        NationMemberRepository memberRepository,
-        NationRepository nationRepository,
-        TerritoryRepository territoryRepository,
+        NationDirectory directory,
+        TerritoryIndex territoryIndex,
+        NationCounterStore counterStore,
         NationService nationService,
-        ExecutorService dbExecutor
+        ExecutorService dbExecutor,
+        ExecutorService backgroundExecutor,
+        Logger logger
     ) {
         this.questsConfig = questsConfig;
         this.databaseManager = databaseManager;
         this.dailyQuestRepository = dailyQuestRepository;
-        this.memberRepository = memberRepository;
-        this.nationRepository = nationRepository;
-        this.territoryRepository = territoryRepository;
+        this.directory = directory;
+        this.territoryIndex = territoryIndex;
+        this.counterStore = counterStore;
         this.nationService = nationService;
         this.dbExecutor = dbExecutor;
+        this.backgroundExecutor = backgroundExecutor;
+        this.logger = logger;
     }
 
     public CompletableFuture<ServiceResult<List<DailyQuest>>> getOrCreateDailyQuests(UUID playerUuid) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
-            if (!territoryRepository.hasBuiltWall(member.get().nationId())) {
+            if (!hasBuiltWall(member.get().nationId())) {
                 return ServiceResult.failure(Status.WALL_NOT_BUILT);
             }
-            LocalDate today = LocalDate.now();
-            List<DailyQuest> existing = dailyQuestRepository.listByNationAndDate(member.get().nationId(), today);
+            List<DailyQuest> existing = todayQuests(member.get().nationId());
             if (!existing.isEmpty()) {
                 return ServiceResult.success(existing);
             }
@@ -75,15 +88,14 @@ public class QuestService {
 
     public CompletableFuture<ServiceResult<List<DailyQuest>>> listDailyQuests(UUID playerUuid) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
-            if (!territoryRepository.hasBuiltWall(member.get().nationId())) {
+            if (!hasBuiltWall(member.get().nationId())) {
                 return ServiceResult.failure(Status.WALL_NOT_BUILT);
             }
-            LocalDate today = LocalDate.now();
-            List<DailyQuest> existing = dailyQuestRepository.listByNationAndDate(member.get().nationId(), today);
+            List<DailyQuest> existing = todayQuests(member.get().nationId());
             if (existing.isEmpty()) {
                 return ServiceResult.failure(Status.NO_QUESTS);
             }
@@ -93,77 +105,176 @@ public class QuestService {
 
     public CompletableFuture<ServiceResult<DailyQuest>> deliverItems(UUID playerUuid, int questId, int amount) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
-            LocalDate today = LocalDate.now();
-            List<DailyQuest> quests = dailyQuestRepository.listByNationAndDate(member.get().nationId(), today);
-            Optional<DailyQuest> quest = quests.stream().filter(q -> q.type().id() == questId).findFirst();
-            if (quest.isEmpty()) {
-                return ServiceResult.failure(Status.NO_QUESTS);
+            long nationId = member.get().nationId();
+            synchronized (questLock) {
+                Optional<DailyQuest> quest = todayQuests(nationId).stream().filter(q -> q.type().id() == questId).findFirst();
+                if (quest.isEmpty()) {
+                    return ServiceResult.failure(Status.NO_QUESTS);
+                }
+                DailyQuest target = quest.get();
+                if (target.completed()) {
+                    return ServiceResult.failure(Status.ALREADY_COMPLETED);
+                }
+                if (target.type().kind() != QuestKind.ITEM_DELIVERY) {
+                    return ServiceResult.failure(Status.INVALID_TYPE);
+                }
+                DailyQuest updated = advance(target, amount);
+                int reward = updated.completed() ? randomReward() : 0;
+                databaseManager.withTransaction(connection -> {
+                    dailyQuestRepository.updateProgress(
+                        connection,
+                        nationId,
+                        questId,
+                        updated.questDate(),
+                        updated.progressAmount(),
+                        updated.completed()
+                    );
+                    return null;
+                });
+                storeQuests(nationId, List.of(updated));
+                if (updated.completed()) {
+                    counterStore.addExp(nationId, reward);
+                    announceCompletion(nationId, updated, reward);
+                }
+                return ServiceResult.success(updated);
+            }
+        }, dbExecutor);
+    }
+
+    public void addProgress(long nationId, DailyQuestType type, int amount) {
+        if (amount <= 0) {
+            return;
+        }
+        pendingProgress.computeIfAbsent(new ProgressKey(nationId, type), key -> new AtomicInteger()).addAndGet(amount);
+    }
+
+    public CompletableFuture<Void> flushProgress() {
+        return CompletableFuture.runAsync(this::flushProgressNow, backgroundExecutor);
+    }
+
+    public void flushProgressNow() {
+        synchronized (questLock) {
+            Map<Long, Map<DailyQuestType, Integer>> deltas = new HashMap<>();
+            for (Map.Entry<ProgressKey, AtomicInteger> entry : pendingProgress.entrySet()) {
+                int delta = entry.getValue().getAndSet(0);
+                if (delta > 0) {
+                    deltas.computeIfAbsent(entry.getKey().nationId(), key -> new EnumMap<>(DailyQuestType.class))
+                        .merge(entry.getKey().type(), delta, Integer::sum);
+                }
             }
-            DailyQuest target = quest.get();
-            if (target.completed()) {
-                return ServiceResult.failure(Status.ALREADY_COMPLETED);
+            if (deltas.isEmpty()) {
+                return;
             }
-            if (target.type().kind() != QuestKind.ITEM_DELIVERY) {
-                return ServiceResult.failure(Status.INVALID_TYPE);
+            List<DailyQuest> updates;
+            Map<DailyQuest, Integer> rewards = new LinkedHashMap<>();
+            try {
+                updates = writeProgress(deltas, rewards);
+            } catch (RuntimeException e) {
+                deltas.forEach((nationId, byType) -> byType.forEach((type, delta) -> addProgress(nationId, type, delta)));
+                throw e;
             }
-            int newProgress = Math.min(target.requiredAmount(), target.progressAmount() + amount);
-            boolean completed = newProgress >= target.requiredAmount();
-            databaseManager.withTransaction(connection -> {
-                dailyQuestRepository.updateProgress(connection, member.get().nationId(), questId, today, newProgress, completed);
-                if (completed) {
-                    int reward = randomReward();
-                    nationRepository.addExp(connection, member.get().nationId(), reward);
-                    nationService.sendNationMessage(member.get().nationId(),
-                        "&6[Nation] &f일일 퀘스트 완료: &e" + target.type().displayName() + " &7(+EXP " + reward + ")");
+            for (DailyQuest quest : updates) {
+                storeQuests(quest.nationId(), List.of(quest));
+            }
+            rewards.forEach((quest, reward) -> {
+                try {
+                    counterStore.addExp(quest.nationId(), reward);
+                    announceCompletion(quest.nationId(), quest, reward);
+                } catch (RuntimeException e) {
+                    logger.warning("Failed to reward quest " + quest.type() + " of nation " + quest.nationId() + ": " + e.getMessage());
                 }
-                return null;
             });
-            return ServiceResult.success(new DailyQuest(
-                target.id(),
-                target.nationId(),
-                target.type(),
-                target.requiredAmount(),
-                newProgress,
-                completed,
-                target.questDate()
-            ));
-        }, dbExecutor);
+        }
     }
 
-    public void addProgress(long nationId, DailyQuestType type, int amount) {
-        CompletableFuture.runAsync(() -> {
-            LocalDate today = LocalDate.now();
-            List<DailyQuest> quests = dailyQuestRepository.listByNationAndDate(nationId, today);
-            for (DailyQuest quest : quests) {
-                if (quest.type() != type || quest.completed()) {
+    private List<DailyQuest> writeProgress(Map<Long, Map<DailyQuestType, Integer>> deltas, Map<DailyQuest, Integer> rewards) {
+        List<DailyQuest> updates = new ArrayList<>();
+        for (Map.Entry<Long, Map<DailyQuestType, Integer>> entry : deltas.entrySet()) {
+            for (DailyQuest quest : todayQuests(entry.getKey())) {
+                Integer delta = entry.getValue().get(quest.type());
+                if (delta == null || quest.completed()) {
                     continue;
                 }
-                int newProgress = Math.min(quest.requiredAmount(), quest.progressAmount() + amount);
-                boolean completed = newProgress >= quest.requiredAmount();
-                databaseManager.withTransaction(connection -> {
-                    dailyQuestRepository.updateProgress(connection, nationId, quest.type().id(), today, newProgress, completed);
-                    if (completed) {
-                        int reward = randomReward();
-                        nationRepository.addExp(connection, nationId, reward);
-                        nationService.sendNationMessage(nationId,
-                            "&6[Nation] &f일일 퀘스트 완료: &e" + quest.type().displayName() + " &7(+EXP " + reward + ")");
-                    }
-                    return null;
-                });
-                break;
+                DailyQuest updated = advance(quest, delta);
+                updates.add(updated);
+                if (updated.completed()) {
+                    rewards.put(updated, randomReward());
+                }
             }
-        }, dbExecutor);
+        }
+        if (!updates.isEmpty()) {
+            databaseManager.withTransaction(connection -> {
+                dailyQuestRepository.updateProgressBatch(connection, updates);
+                return null;
+            });
+        }
+        return updates;
+    }
+
+    private List<DailyQuest> todayQuests(long nationId) {
+        LocalDate today = LocalDate.now();
+        QuestDay day = questDays.get(nationId);
+        if (day != null && day.date().equals(today)) {
+            return List.copyOf(day.quests().values());
+        }
+        List<DailyQuest> loaded = dailyQuestRepository.listByNationAndDate(nationId, today);
+        Map<DailyQuestType, DailyQuest> byType = new LinkedHashMap<>();
+        for (DailyQuest quest : loaded) {
+            byType.put(quest.type(), quest);
+        }
+        QuestDay installed = questDays.compute(
+            nationId,
+            (key, current) -> current != null && current.date().equals(today) ? current : new QuestDay(today, byType)
+        );
+        return List.copyOf(installed.quests().values());
+    }
+
+    private void storeQuests(long nationId, List<DailyQuest> quests) {
+        questDays.compute(nationId, (key, current) -> {
+            LocalDate date = quests.get(0).questDate();
+            Map<DailyQuestType, DailyQuest> byType = new LinkedHashMap<>();
+            if (current != null && current.date().equals(date)) {
+                byType.putAll(current.quests());
+            }
+            for (DailyQuest quest : quests) {
+                byType.put(quest.type(), quest);
+            }
+            return new QuestDay(date, byType);
+        });
+    }
+
+    private DailyQuest advance(DailyQuest quest, int amount) {
+        int newProgress = Math.min(quest.requiredAmount(), quest.progressAmount() + amount);
+        return new DailyQuest(
+            quest.id(),
+            quest.nationId(),
+            quest.type(),
+            quest.requiredAmount(),
+            newProgress,
+            newProgress >= quest.requiredAmount(),
+            quest.questDate()
+        );
+    }
+
+    private void announceCompletion(long nationId, DailyQuest quest, int reward) {
+        nationService.sendNationMessage(nationId,
+            "&6[Nation] &f일일 퀘스트 완료: &e" + quest.type().displayName() + " &7(+EXP " + reward + ")");
+    }
+
+    private boolean hasBuiltWall(long nationId) {
+        return territoryIndex.listByNation(nationId).stream()
+            .anyMatch(territory -> territory.wallStatus() == WallStatus.BUILT);
     }
 
     private List<DailyQuest> createDailyQuests(long nationId) {
         LocalDate today = LocalDate.now();
         List<DailyQuestType> pool = new ArrayList<>(List.of(DailyQuestType.values()));
         int count = Math.min(questsConfig.dailyCount(), pool.size());
-        int memberCount = nationRepository.countMembers(nationId);
+        int memberCount = directory.memberCount(nationId);
         List<DailyQuest> quests = new ArrayList<>();
         databaseManager.withTransaction(connection -> {
             dailyQuestRepository.deleteByNationAndDate(connection, nationId, today);
@@ -178,6 +289,13 @@ public class QuestService {
             }
             return null;
         });
+        Map<DailyQuestType, DailyQuest> byType = new LinkedHashMap<>();
+        for (DailyQuest quest : quests) {
+            byType.put(quest.type(), quest);
+        }
+        synchronized (questLock) {
+            questDays.put(nationId, new QuestDay(today, byType));
+        }
         return quests;
     }
 
@@ -187,6 +305,12 @@ public class QuestService {
         return min + random.nextInt(Math.max(1, max - min + 1));
     }
 
+    private record ProgressKey(long nationId, DailyQuestType type) {
+    }
+
+    private record QuestDay(LocalDate date, Map<DailyQuestType, DailyQuest> quests) {
+    }
+
     public enum Status {
         SUCCESS,
         NOT_IN_NATION,
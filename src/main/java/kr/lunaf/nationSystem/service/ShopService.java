@@ -6,8 +6,6 @@ import kr.lunaf.nationSystem.domain.BuildingType;
 import kr.lunaf.nationSystem.domain.NationMember;
 import kr.lunaf.nationSystem.domain.NationRole;
 import kr.lunaf.nationSystem.domain.Nation;
-import kr.lunaf.nationSystem.repository.NationMemberRepository;
-import kr.lunaf.nationSystem.repository.NationRepository;
 import kr.lunaf.nationSystem.util.CustomItems;
 import org.bukkit.entity.Player;
 
@@ -19,8 +17,7 @@ import java.util.concurrent.ExecutorService;
 
 public class ShopService {
     private final BuildingsConfig buildingsConfig;
-    private final NationMemberRepository memberRepository;
-    private final NationRepository nationRepository;
+    private final NationDirectory directory;
     private final BuildingService buildingService;
     private final EconomyService economyService;
     private final CustomItems customItems;
@@ -29,8 +26,7 @@ public class ShopService {
 
     public ShopService(
         BuildingsConfig buildingsConfig,
-        NationMemberRepository memberRepository,
-        NationRepository nationRepository,
+        NationDirectory directory,
         BuildingService buildingService,
         EconomyService economyService,
         CustomItems customItems,
@@ -38,8 +34,7 @@ public class ShopService {
         Executor syncExecutor
     ) {
         this.buildingsConfig = buildingsConfig;
-        this.memberRepository = memberRepository;
-        this.nationRepository = nationRepository;
+        this.directory = directory;
         this.buildingService = buildingService;
         this.economyService = economyService;
         this.customItems = customItems;
@@ -48,45 +43,60 @@ public class ShopService {
     }
 
     public CompletableFuture<ServiceResult<Void>> buyBuildingItem(Player player, BuildingType type) {
+        UUID playerUuid = player.getUniqueId();
         return CompletableFuture.supplyAsync(() -> {
-            UUID playerUuid = player.getUniqueId();
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
-                return ServiceResult.failure(Status.NOT_IN_NATION);
+                return ServiceResult.<NationMember>failure(Status.NOT_IN_NATION);
             }
             if (member.get().role() != NationRole.OWNER) {
-                return ServiceResult.failure(Status.OWNER_ONLY);
+                return ServiceResult.<NationMember>failure(Status.OWNER_ONLY);
             }
             BuildingDefinition definition = buildingsConfig.get(type);
             if (definition == null) {
-                return ServiceResult.failure(Status.INVALID_TYPE);
+                return ServiceResult.<NationMember>failure(Status.INVALID_TYPE);
             }
-            Optional<Nation> nation = nationRepository.findById(member.get().nationId());
+            Optional<Nation> nation = directory.findNation(member.get().nationId());
             if (nation.isEmpty()) {
-                return ServiceResult.failure(Status.NOT_IN_NATION);
+                return ServiceResult.<NationMember>failure(Status.NOT_IN_NATION);
             }
             if (nation.get().level() < definition.minLevel()) {
-                return ServiceResult.failure(Status.LEVEL_TOO_LOW);
+                return ServiceResult.<NationMember>failure(Status.LEVEL_TOO_LOW);
             }
-            boolean hasShop = buildingService.hasActiveBuilding(member.get().nationId(), BuildingType.SHOP).join();
-            if (!hasShop) {
-                return ServiceResult.failure(Status.NO_SHOP_BUILDING);
+            return ServiceResult.success(member.get());
+        }, dbExecutor).thenCompose(result -> {
+            if (!result.isSuccess()) {
+                return CompletableFuture.completedFuture(ServiceResult.<Void>failure(result.status()));
             }
-            long price = definition.price();
-            if (price > 0) {
-                if (!economyService.isAvailable()) {
-                    return ServiceResult.failure(Status.ECONOMY_UNAVAILABLE);
-                }
-                boolean withdrawn = economyService.withdrawSync(playerUuid, price, syncExecutor).join();
-                if (!withdrawn) {
-                    return ServiceResult.failure(Status.INSUFFICIENT_FUNDS);
-                }
+            return buildingService.hasActiveBuilding(result.data().nationId(), BuildingType.SHOP)
+                .thenCompose(hasShop -> {
+                    if (!hasShop) {
+                        return CompletableFuture.completedFuture(ServiceResult.<Void>failure(Status.NO_SHOP_BUILDING));
+                    }
+                    return purchase(player, type, buildingsConfig.get(type));
+                });
+        });
+    }
+
+    private CompletableFuture<ServiceResult<Void>> purchase(Player player, BuildingType type, BuildingDefinition definition) {
+        long price = definition.price();
+        CompletableFuture<Boolean> payment;
+        if (price <= 0) {
+            payment = CompletableFuture.completedFuture(true);
+        } else if (!economyService.isAvailable()) {
+            return CompletableFuture.completedFuture(ServiceResult.failure(Status.ECONOMY_UNAVAILABLE));
+        } else {
+            payment = economyService.withdrawSync(player.getUniqueId(), price, syncExecutor);
+        }
+        return payment.thenApply(withdrawn -> {
+            if (!withdrawn) {
+                return ServiceResult.<Void>failure(Status.INSUFFICIENT_FUNDS);
             }
             syncExecutor.execute(() -> player.getInventory().addItem(
                 customItems.createBuildingItem(type, definition.displayName())
             ));
-            return ServiceResult.success(null);
-        }, dbExecutor);
+            return ServiceResult.<Void>success(null);
+        });
     }
 
     public enum Status {
@@ -5,18 +5,24 @@ import kr.lunaf.nationSystem.db.DatabaseManager;
 import kr.lunaf.nationSystem.domain.BuildingType;
 import kr.lunaf.nationSystem.domain.NationMembership;
 import kr.lunaf.nationSystem.repository.NationStorageRepository;
+import kr.lunaf.nationSystem.repository.NationStorageRepository.StoredContents;
 import kr.lunaf.nationSystem.util.ItemSerialization;
+import kr.lunaf.nationSystem.util.StorageCodec;
 import org.bukkit.Bukkit;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 public class StorageService {
     private final PluginConfig pluginConfig;
@@ -26,8 +32,12 @@ public class StorageService {
     private final NationStorageRepository storageRepository;
     private final ExecutorService dbExecutor;
     private final Executor syncExecutor;
+    private final Logger logger;
     private final Map<Long, Inventory> storageCache = new ConcurrentHashMap<>();
     private final Map<Inventory, Long> inventoryToNation = new ConcurrentHashMap<>();
+    private final Map<Long, SlotSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Void>> pendingWrites = new ConcurrentHashMap<>();
+    private final Map<Long, byte[][]> failedWrites = new ConcurrentHashMap<>();
 
     public StorageService(
         PluginConfig pluginConfig,
@@ -36,7 +46,8 @@ public class StorageService {
         BuildingService buildingService,
         NationStorageRepository storageRepository,
         ExecutorService dbExecutor,
-        Executor syncExecutor
+        Executor syncExecutor,
+        Logger logger
     ) {
         this.pluginConfig = pluginConfig;
         this.databaseManager = databaseManager;
@@ -45,6 +56,7 @@ public class StorageService {
         this.storageRepository = storageRepository;
         this.dbExecutor = dbExecutor;
         this.syncExecutor = syncExecutor;
+        this.logger = logger;
     }
 
     public CompletableFuture<ServiceResult<Inventory>> openStorage(UUID playerUuid) {
@@ -62,21 +74,18 @@ public class StorageService {
                     if (cached != null) {
                         return CompletableFuture.completedFuture(ServiceResult.success(cached));
                     }
-                    return CompletableFuture.supplyAsync(() -> storageRepository.loadStorage(membership.nationId()), dbExecutor)
+                    long nationId = membership.nationId();
+                    retryFailed(nationId);
+                    CompletableFuture<Void> pending = pendingWrites.getOrDefault(nationId, CompletableFuture.completedFuture(null));
+                    return pending.exceptionally(throwable -> null)
+                        .thenApplyAsync(ignored -> storageRepository.loadStorage(nationId), dbExecutor)
                         .thenCompose(data -> {
-                            CompletableFuture<Inventory> created = new CompletableFuture<>();
-                            syncExecutor.execute(() -> {
-                                int size = normalizeSize(pluginConfig.storageSize());
-                                Inventory inventory = Bukkit.createInventory(null, size, "Nation Storage");
-                                ItemStack[] items = data.map(ItemSerialization::deserialize).orElse(new ItemStack[0]);
-                                if (items.length > 0) {
-                                    inventory.setContents(trimToSize(items, size));
-                                }
-                                storageCache.put(membership.nationId(), inventory);
-                                inventoryToNation.put(inventory, membership.nationId());
-                                created.complete(inventory);
-                            });
-                            return created.thenApply(ServiceResult::success);
+                            if (failedWrites.containsKey(nationId)) {
+                                return CompletableFuture.completedFuture(ServiceResult.<Inventory>failure(Status.ERROR));
+                            }
+                            CompletableFuture<ServiceResult<Inventory>> created = new CompletableFuture<>();
+                            syncExecutor.execute(() -> created.complete(createInventory(nationId, data)));
+                            return created;
                         });
                 });
         });
@@ -92,13 +101,98 @@ public class StorageService {
         }
         storageCache.remove(nationId);
         inventoryToNation.remove(inventory);
-        String serialized = ItemSerialization.serialize(inventory.getContents());
-        CompletableFuture.runAsync(() -> {
-            databaseManager.withTransaction(connection -> {
-                storageRepository.saveStorage(connection, nationId, serialized);
-                return null;
-            });
-        }, dbExecutor);
+        SlotSnapshot snapshot = snapshots.remove(nationId);
+        if (snapshot != null && snapshot.capture(inventory.getContents()) > 0) {
+            persist(nationId, snapshot.encodedSlots());
+        }
+    }
+
+    public void autosave() {
+        for (Long nationId : failedWrites.keySet()) {
+            retryFailed(nationId);
+        }
+        for (Map.Entry<Long, Inventory> entry : storageCache.entrySet()) {
+            SlotSnapshot snapshot = snapshots.get(entry.getKey());
+            if (snapshot != null && snapshot.capture(entry.getValue().getContents()) > 0) {
+                persist(entry.getKey(), snapshot.encodedSlots());
+            }
+        }
+    }
+
+    public void flushAll(long timeoutMillis) {
+        autosave();
+        CompletableFuture<?>[] writes = pendingWrites.values().toArray(new CompletableFuture<?>[0]);
+        try {
+            CompletableFuture.allOf(writes).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Storage flush did not complete: " + e.getMessage(), e);
+        }
+    }
+
+    private ServiceResult<Inventory> createInventory(long nationId, Optional<StoredContents> data) {
+        Inventory existing = storageCache.get(nationId);
+        if (existing != null) {
+            return ServiceResult.success(existing);
+        }
+        ItemStack[] items;
+        try {
+            items = data.map(this::decode).orElse(new ItemStack[0]);
+        } catch (RuntimeException e) {
+            logger.warning("Refusing to open storage of nation " + nationId + ": " + e.getMessage());
+            return ServiceResult.failure(Status.CORRUPTED);
+        }
+        int size = normalizeSize(pluginConfig.storageSize());
+        Inventory inventory = Bukkit.createInventory(null, size, "Nation Storage");
+        if (items.length > 0) {
+            inventory.setContents(trimToSize(items, size));
+        }
+        SlotSnapshot snapshot = new SlotSnapshot(size);
+        snapshot.capture(inventory.getContents());
+        storageCache.put(nationId, inventory);
+        inventoryToNation.put(inventory, nationId);
+        snapshots.put(nationId, snapshot);
+        if (data.isPresent() && data.get().isLegacy()) {
+            persist(nationId, snapshot.encodedSlots());
+        }
+        return ServiceResult.success(inventory);
+    }
+
+    private ItemStack[] decode(StoredContents contents) {
+        if (contents.binary() != null) {
+            return StorageCodec.decode(contents.binary());
+        }
+        return ItemSerialization.deserializeLegacy(contents.legacy());
+    }
+
+    private void persist(long nationId, byte[][] slots) {
+        CompletableFuture<Void> write = pendingWrites.compute(nationId, (id, previous) -> {
+            CompletableFuture<Void> base = previous == null ? CompletableFuture.completedFuture(null) : previous.exceptionally(throwable -> null);
+            return base.thenRunAsync(() -> {
+                byte[] encoded = StorageCodec.pack(slots);
+                databaseManager.withTransaction(connection -> {
+                    storageRepository.saveStorage(connection, nationId, encoded);
+                    return null;
+                });
+            }, dbExecutor);
+        });
+        write.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                logger.warning("Failed to save storage of nation " + nationId + ", will retry: " + throwable.getMessage());
+                if (pendingWrites.get(nationId) == write) {
+                    failedWrites.put(nationId, slots);
+                }
+            } else {
+                failedWrites.remove(nationId);
+            }
+            pendingWrites.remove(nationId, write);
+        });
+    }
+
+    private void retryFailed(long nationId) {
+        byte[][] slots = failedWrites.remove(nationId);
+        if (slots != null) {
+            persist(nationId, slots);
+        }
     }
 
     private int normalizeSize(int size) {
@@ -113,10 +207,40 @@ public class StorageService {
         return trimmed;
     }
 
+    private static final class SlotSnapshot {
+        private final ItemStack[] items;
+        private final byte[][] encoded;
+
+        private SlotSnapshot(int size) {
+            this.items = new ItemStack[size];
+            this.encoded = new byte[size][];
+            Arrays.fill(encoded, StorageCodec.encodeSlot(null));
+        }
+
+        private int capture(ItemStack[] contents) {
+            int changed = 0;
+            for (int slot = 0; slot < items.length; slot++) {
+                ItemStack current = slot < contents.length && !StorageCodec.isEmpty(contents[slot]) ? contents[slot] : null;
+                if (Objects.equals(current, items[slot])) {
+                    continue;
+                }
+                items[slot] = current == null ? null : current.clone();
+                encoded[slot] = StorageCodec.encodeSlot(current);
+                changed++;
+            }
+            return changed;
+        }
+
+        private byte[][] encodedSlots() {
+            return encoded.clone();
+        }
+    }
+
     public enum Status {
         SUCCESS,
         NOT_IN_NATION,
         NO_STORAGE_BUILDING,
+        CORRUPTED,
         ERROR
     }
 
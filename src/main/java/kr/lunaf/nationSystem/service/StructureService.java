@@ -10,27 +10,67 @@ import org.bukkit.structure.StructureManager;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
 
 public class StructureService {
+    private static final Map<String, StructureRotation> ROTATIONS = Map.of(
+        "SOUTH", StructureRotation.NONE,
+        "WEST", StructureRotation.CLOCKWISE_90,
+        "NORTH", StructureRotation.CLOCKWISE_180,
+        "EAST", StructureRotation.COUNTERCLOCKWISE_90
+    );
+
     private final PluginConfig pluginConfig;
     private final java.io.File dataFolder;
+    private final Logger logger;
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
 
-    public StructureService(PluginConfig pluginConfig, java.io.File dataFolder) {
+    public StructureService(PluginConfig pluginConfig, java.io.File dataFolder, Logger logger) {
         this.pluginConfig = pluginConfig;
         this.dataFolder = dataFolder;
+        this.logger = logger;
+    }
+
+    public void preload(Collection<String> buildingPaths) {
+        load(pluginConfig.wallStructurePath());
+        load(pluginConfig.centerStructurePath());
+        for (String path : buildingPaths) {
+            if (path != null && !path.isBlank()) {
+                load(path);
+            }
+        }
+    }
+
+    public void refresh() {
+        for (Map.Entry<String, Template> entry : templates.entrySet()) {
+            File file = new File(dataFolder, entry.getKey());
+            Template current = entry.getValue();
+            if (file.lastModified() != current.lastModified() || file.length() != current.length()) {
+                load(entry.getKey());
+            }
+        }
+    }
+
+    public int cachedTemplates() {
+        return (int) templates.values().stream().filter(template -> template.structure() != null).count();
     }
 
     public boolean placeWallStructure(Location location) {
-        return placeStructure(pluginConfig.wallStructurePath(), location);
+        return placeStructure(pluginConfig.wallStructurePath(), location, StructureRotation.NONE);
     }
 
     public boolean placeCenterStructure(Location location) {
-        return placeStructure(pluginConfig.centerStructurePath(), location);
+        return placeStructure(pluginConfig.centerStructurePath(), location, StructureRotation.NONE);
     }
 
     public boolean placeBuildingStructure(String relativePath, Location location, String direction) {
-        return placeStructure(relativePath, location, direction);
+        StructureRotation rotation = ROTATIONS.getOrDefault(direction.toUpperCase(Locale.ROOT), StructureRotation.NONE);
+        return placeStructure(relativePath, location, rotation);
     }
 
     public boolean hasWallStructure() {
@@ -45,18 +85,16 @@ public class StructureService {
         return structureExists(relativePath);
     }
 
-    private boolean placeStructure(String relativePath, Location location) {
-        File file = new File(dataFolder, relativePath);
-        if (!file.exists()) {
+    private boolean placeStructure(String relativePath, Location location, StructureRotation rotation) {
+        Structure structure = template(relativePath).structure();
+        if (structure == null) {
             return false;
         }
-        try (FileInputStream input = new FileInputStream(file)) {
-            StructureManager manager = Bukkit.getStructureManager();
-            Structure structure = manager.loadStructure(input);
+        try {
             structure.place(
                 location,
                 false,
-                StructureRotation.NONE,
+                rotation,
                 Mirror.NONE,
                 0,
                 1.0f,
@@ -68,37 +106,30 @@ public class StructureService {
         }
     }
 
-    private boolean placeStructure(String relativePath, Location location, String direction) {
+    private boolean structureExists(String relativePath) {
+        return template(relativePath).structure() != null;
+    }
+
+    private Template template(String relativePath) {
+        Template template = templates.get(relativePath);
+        return template != null ? template : load(relativePath);
+    }
+
+    private Template load(String relativePath) {
         File file = new File(dataFolder, relativePath);
-        if (!file.exists()) {
-            return false;
-        }
-        try (FileInputStream input = new FileInputStream(file)) {
-            StructureManager manager = org.bukkit.Bukkit.getStructureManager();
-            Structure structure = manager.loadStructure(input);
-            StructureRotation rotation = switch (direction.toUpperCase(java.util.Locale.ROOT)) {
-                case "WEST" -> StructureRotation.CLOCKWISE_90;
-                case "NORTH" -> StructureRotation.CLOCKWISE_180;
-                case "EAST" -> StructureRotation.COUNTERCLOCKWISE_90;
-                default -> StructureRotation.NONE;
-            };
-            structure.place(
-                location,
-                false,
-                rotation,
-                Mirror.NONE,
-                0,
-                1.0f,
-                new Random()
-            );
-            return true;
-        } catch (Exception e) {
-            return false;
+        Template template = new Template(null, file.lastModified(), file.length());
+        if (file.isFile()) {
+            try (FileInputStream input = new FileInputStream(file)) {
+                StructureManager manager = Bukkit.getStructureManager();
+                template = new Template(manager.loadStructure(input), template.lastModified(), template.length());
+            } catch (Exception e) {
+                logger.warning("Failed to load structure " + relativePath + ": " + e.getMessage());
+            }
         }
+        templates.put(relativePath, template);
+        return template;
     }
 
-    private boolean structureExists(String relativePath) {
-        File file = new File(dataFolder, relativePath);
-        return file.exists();
+    private record Template(Structure structure, long lastModified, long length) {
     }
 }
@@ -0,0 +1,271 @@
+package kr.lunaf.nationSystem.service;
+
+import kr.lunaf.nationSystem.domain.NationTerritory;
+import kr.lunaf.nationSystem.util.LongObjectMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+public class TerritoryIndex {
+    private static final NationTerritory[] EMPTY = new NationTerritory[0];
+
+    private final int cellSize;
+    private final Map<Long, NationTerritory> byId = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, NationTerritory>> byNation = new ConcurrentHashMap<>();
+    private final Map<String, WorldGrid> worlds = new ConcurrentHashMap<>();
+    private volatile Map<String, LongObjectMap<Object>> chunkClaims = Map.of();
+    private volatile long version;
+
+    public TerritoryIndex(int cellSize) {
+        this.cellSize = Math.max(16, cellSize);
+    }
+
+    public synchronized void load(Collection<NationTerritory> territories) {
+        byId.clear();
+        byNation.clear();
+        worlds.clear();
+        for (NationTerritory territory : territories) {
+            add(territory);
+        }
+        rebuildChunkClaims();
+    }
+
+    public synchronized void put(NationTerritory territory) {
+        NationTerritory previous = byId.get(territory.id());
+        if (previous != null) {
+            discard(previous);
+        }
+        add(territory);
+        rebuildChunkClaims();
+    }
+
+    public synchronized void remove(long territoryId) {
+        NationTerritory previous = byId.get(territoryId);
+        if (previous != null) {
+            discard(previous);
+            rebuildChunkClaims();
+        }
+    }
+
+    public Optional<NationTerritory> get(long territoryId) {
+        return Optional.ofNullable(byId.get(territoryId));
+    }
+
+    public List<NationTerritory> listByNation(long nationId) {
+        Map<Long, NationTerritory> territories = byNation.get(nationId);
+        if (territories == null) {
+            return List.of();
+        }
+        List<NationTerritory> out = new ArrayList<>(territories.values());
+        out.sort(Comparator.comparingLong(NationTerritory::id));
+        return out;
+    }
+
+    public int countByNation(long nationId) {
+        Map<Long, NationTerritory> territories = byNation.get(nationId);
+        return territories == null ? 0 : territories.size();
+    }
+
+    public List<NationTerritory> all() {
+        return List.copyOf(byId.values());
+    }
+
+    public boolean hasTerritoryWithin(String world, int x, int y, int z, int distance) {
+        WorldGrid grid = worlds.get(worldKey(world));
+        if (grid == null) {
+            return false;
+        }
+        long limit = (long) distance * distance;
+        int reach = Math.max(1, (distance + cellSize - 1) / cellSize);
+        int cellX = Math.floorDiv(x, cellSize);
+        int cellZ = Math.floorDiv(z, cellSize);
+        for (int dx = -reach; dx <= reach; dx++) {
+            for (int dz = -reach; dz <= reach; dz++) {
+                for (NationTerritory territory : grid.centres.getOrDefault(cellKey(cellX + dx, cellZ + dz), EMPTY)) {
+                    long ox = territory.centerX() - x;
+                    long oy = territory.centerY() - y;
+                    long oz = territory.centerZ() - z;
+                    if (ox * ox + oy * oy + oz * oz < limit) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    public Optional<NationTerritory> findAt(String world, int x, int z) {
+        WorldGrid grid = worlds.get(worldKey(world));
+        if (grid == null) {
+            return Optional.empty();
+        }
+        long key = cellKey(Math.floorDiv(x, cellSize), Math.floorDiv(z, cellSize));
+        for (NationTerritory territory : grid.coverage.getOrDefault(key, EMPTY)) {
+            if (contains(territory, x, z)) {
+                return Optional.of(territory);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public NationTerritory ownerAt(String world, int x, int z) {
+        LongObjectMap<Object> claims = chunkClaims.get(world);
+        if (claims == null) {
+            return null;
+        }
+        Object claim = claims.get(cellKey(x >> 4, z >> 4));
+        if (claim == null) {
+            return null;
+        }
+        if (claim instanceof NationTerritory territory) {
+            return territory;
+        }
+        for (NationTerritory territory : (NationTerritory[]) claim) {
+            if (contains(territory, x, z)) {
+                return territory;
+            }
+        }
+        return null;
+    }
+
+    public boolean isBoundaryChunk(String world, int chunkX, int chunkZ) {
+        LongObjectMap<Object> claims = chunkClaims.get(world);
+        return claims != null && claims.get(cellKey(chunkX, chunkZ)) instanceof NationTerritory[];
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return cellKey(chunkX, chunkZ);
+    }
+
+    public static int halfExtent(int size) {
+        return ((size - 1) / 2) + 1;
+    }
+
+    public static boolean contains(NationTerritory territory, int x, int z) {
+        int c = halfExtent(territory.size());
+        return x >= territory.centerX() - c && x <= territory.centerX() + c
+            && z >= territory.centerZ() - c && z <= territory.centerZ() + c;
+    }
+
+    private void add(NationTerritory territory) {
+        byId.put(territory.id(), territory);
+        byNation.computeIfAbsent(territory.nationId(), key -> new ConcurrentHashMap<>()).put(territory.id(), territory);
+        WorldGrid grid = worlds.computeIfAbsent(worldKey(territory.world()), key -> new WorldGrid());
+        long centreKey = cellKey(Math.floorDiv(territory.centerX(), cellSize), Math.floorDiv(territory.centerZ(), cellSize));
+        grid.centres.compute(centreKey, (key, current) -> append(current, territory));
+        forEachCoveredCell(territory, key -> grid.coverage.compute(key, (k, current) -> append(current, territory)));
+    }
+
+    private void discard(NationTerritory territory) {
+        byId.remove(territory.id());
+        Map<Long, NationTerritory> nationTerritories = byNation.get(territory.nationId());
+        if (nationTerritories != null) {
+            nationTerritories.remove(territory.id());
+            if (nationTerritories.isEmpty()) {
+                byNation.remove(territory.nationId());
+            }
+        }
+        WorldGrid grid = worlds.get(worldKey(territory.world()));
+        if (grid == null) {
+            return;
+        }
+        long centreKey = cellKey(Math.floorDiv(territory.centerX(), cellSize), Math.floorDiv(territory.centerZ(), cellSize));
+        grid.centres.computeIfPresent(centreKey, (key, current) -> without(current, territory.id()));
+        forEachCoveredCell(territory, key -> grid.coverage.computeIfPresent(key, (k, current) -> without(current, territory.id())));
+    }
+
+    private void rebuildChunkClaims() {
+        Map<String, LongObjectMap<Object>> next = new HashMap<>();
+        for (NationTerritory territory : byId.values()) {
+            LongObjectMap<Object> claims = next.computeIfAbsent(territory.world(), key -> new LongObjectMap<>());
+            int c = halfExtent(territory.size());
+            int minX = territory.centerX() - c;
+            int maxX = territory.centerX() + c;
+            int minZ = territory.centerZ() - c;
+            int maxZ = territory.centerZ() + c;
+            for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+                for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                    long key = cellKey(chunkX, chunkZ);
+                    boolean whole = chunkX << 4 >= minX && (chunkX << 4) + 15 <= maxX
+                        && chunkZ << 4 >= minZ && (chunkZ << 4) + 15 <= maxZ;
+                    Object current = claims.get(key);
+                    if (current == null && whole) {
+                        claims.put(key, territory);
+                    } else {
+                        claims.put(key, appendClaim(current, territory));
+                    }
+                }
+            }
+        }
+        chunkClaims = next;
+        version++;
+    }
+
+    private static NationTerritory[] appendClaim(Object current, NationTerritory territory) {
+        if (current == null) {
+            return new NationTerritory[]{territory};
+        }
+        if (current instanceof NationTerritory existing) {
+            return new NationTerritory[]{existing, territory};
+        }
+        return append((NationTerritory[]) current, territory);
+    }
+
+    private void forEachCoveredCell(NationTerritory territory, LongConsumer action) {
+        int c = halfExtent(territory.size());
+        int minCellX = Math.floorDiv(territory.centerX() - c, cellSize);
+        int maxCellX = Math.floorDiv(territory.centerX() + c, cellSize);
+        int minCellZ = Math.floorDiv(territory.centerZ() - c, cellSize);
+        int maxCellZ = Math.floorDiv(territory.centerZ() + c, cellSize);
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cz = minCellZ; cz <= maxCellZ; cz++) {
+                action.accept(cellKey(cx, cz));
+            }
+        }
+    }
+
+    private static NationTerritory[] append(NationTerritory[] current, NationTerritory territory) {
+        if (current == null) {
+            return new NationTerritory[]{territory};
+        }
+        NationTerritory[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = territory;
+        return next;
+    }
+
+    private static NationTerritory[] without(NationTerritory[] current, long territoryId) {
+        List<NationTerritory> kept = new ArrayList<>(current.length);
+        for (NationTerritory value : current) {
+            if (value.id() != territoryId) {
+                kept.add(value);
+            }
+        }
+        return kept.isEmpty() ? null : kept.toArray(EMPTY);
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    private static String worldKey(String world) {
+        return world.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class WorldGrid {
+        private final Map<Long, NationTerritory[]> centres = new ConcurrentHashMap<>();
+        private final Map<Long, NationTerritory[]> coverage = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,128 @@
+package kr.lunaf.nationSystem.service;
+
+import kr.lunaf.nationSystem.domain.NationTerritory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TerritoryPresence {
+    private final TerritoryIndex territoryIndex;
+    private final Map<UUID, Position> positions = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, Set<UUID>>> chunkOccupants = new ConcurrentHashMap<>();
+    private final Map<Long, Set<UUID>> territoryOccupants = new ConcurrentHashMap<>();
+
+    public TerritoryPresence(TerritoryIndex territoryIndex) {
+        this.territoryIndex = territoryIndex;
+    }
+
+    public Transition update(UUID playerUuid, String world, int x, int z) {
+        long chunkKey = TerritoryIndex.chunkKey(x >> 4, z >> 4);
+        NationTerritory territory = territoryIndex.ownerAt(world, x, z);
+        Position previous = positions.get(playerUuid);
+        if (previous != null && previous.chunkKey() == chunkKey && previous.world().equals(world)
+            && sameTerritory(previous.territory(), territory)) {
+            return null;
+        }
+        positions.put(playerUuid, new Position(world, chunkKey, territory));
+        if (previous == null || previous.chunkKey() != chunkKey || !previous.world().equals(world)) {
+            if (previous != null) {
+                removeFromChunk(previous, playerUuid);
+            }
+            chunkOccupants.computeIfAbsent(world, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(chunkKey, key -> ConcurrentHashMap.newKeySet())
+                .add(playerUuid);
+        }
+        NationTerritory left = previous == null ? null : previous.territory();
+        if (sameTerritory(left, territory)) {
+            return null;
+        }
+        if (left != null) {
+            removeFromTerritory(left.id(), playerUuid);
+        }
+        if (territory != null) {
+            territoryOccupants.computeIfAbsent(territory.id(), key -> ConcurrentHashMap.newKeySet()).add(playerUuid);
+        }
+        return new Transition(left, territory);
+    }
+
+    public NationTerritory remove(UUID playerUuid) {
+        Position previous = positions.remove(playerUuid);
+        if (previous == null) {
+            return null;
+        }
+        removeFromChunk(previous, playerUuid);
+        if (previous.territory() != null) {
+            removeFromTerritory(previous.territory().id(), playerUuid);
+        }
+        return previous.territory();
+    }
+
+    public NationTerritory territoryOf(UUID playerUuid) {
+        Position position = positions.get(playerUuid);
+        return position == null ? null : position.territory();
+    }
+
+    public Set<UUID> occupants(long territoryId) {
+        Set<UUID> occupants = territoryOccupants.get(territoryId);
+        return occupants == null ? Set.of() : Collections.unmodifiableSet(occupants);
+    }
+
+    public List<UUID> playersInArea(String world, int minX, int maxX, int minZ, int maxZ) {
+        Map<Long, Set<UUID>> chunks = chunkOccupants.get(world);
+        if (chunks == null || chunks.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> players = new ArrayList<>();
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                Set<UUID> occupants = chunks.get(TerritoryIndex.chunkKey(chunkX, chunkZ));
+                if (occupants != null) {
+                    players.addAll(occupants);
+                }
+            }
+        }
+        return players;
+    }
+
+    private void removeFromChunk(Position position, UUID playerUuid) {
+        Map<Long, Set<UUID>> chunks = chunkOccupants.get(position.world());
+        if (chunks == null) {
+            return;
+        }
+        Set<UUID> occupants = chunks.get(position.chunkKey());
+        if (occupants != null) {
+            occupants.remove(playerUuid);
+            if (occupants.isEmpty()) {
+                chunks.remove(position.chunkKey());
+            }
+        }
+    }
+
+    private void removeFromTerritory(long territoryId, UUID playerUuid) {
+        Set<UUID> occupants = territoryOccupants.get(territoryId);
+        if (occupants != null) {
+            occupants.remove(playerUuid);
+            if (occupants.isEmpty()) {
+                territoryOccupants.remove(territoryId);
+            }
+        }
+    }
+
+    private static boolean sameTerritory(NationTerritory a, NationTerritory b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.id() == b.id();
+    }
+
+    private record Position(String world, long chunkKey, NationTerritory territory) {
+    }
+
+    public record Transition(NationTerritory left, NationTerritory entered) {
+    }
+}
@@ -11,6 +11,8 @@ import kr.lunaf.nationSystem.repository.NationMemberRepository;
 import kr.lunaf.nationSystem.repository.NationRepository;
 import kr.lunaf.nationSystem.repository.NationSettingsRepository;
 import kr.lunaf.nationSystem.repository.TerritoryRepository;
+import kr.lunaf.nationSystem.util.DeadlineQueue;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -18,12 +20,16 @@ import org.bukkit.entity.Player;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.logging.Logger;
 
 public class TerritoryService {
     private final PluginConfig pluginConfig;
@@ -31,11 +37,20 @@ public class TerritoryService {
     private final NationRepository nationRepository;
     private final NationMemberRepository memberRepository;
     private final NationSettingsRepository settingsRepository;
+    private final NationDirectory directory;
+    private final LeaderboardService leaderboard;
     private final TerritoryRepository territoryRepository;
+    private final TerritoryIndex territoryIndex;
+    private final TerritoryPresence presence;
     private final StructureService structureService;
+    private final BlockEditService blockEditService;
+    private final NationCounterStore counterStore;
     private final NationService nationService;
     private final ExecutorService dbExecutor;
+    private final ExecutorService backgroundExecutor;
     private final Executor syncExecutor;
+    private final Set<Long> wallsInProgress = ConcurrentHashMap.newKeySet();
+    private final DeadlineQueue<Long, NationTerritory> expiryQueue;
 
     public TerritoryService(
         PluginConfig pluginConfig,
@@ -43,28 +58,59 @@ public class TerritoryService {
         NationRepository nationRepository,
         NationMemberRepository memberRepository,
         NationSettingsRepository settingsRepository,
+        NationDirectory directory,
+        LeaderboardService leaderboard,
         TerritoryRepository territoryRepository,
+        TerritoryIndex territoryIndex,
+        TerritoryPresence presence,
         StructureService structureService,
+        BlockEditService blockEditService,
+        NationCounterStore counterStore,
         NationService nationService,
         ExecutorService dbExecutor,
-        Executor syncExecutor
+        ExecutorService backgroundExecutor,
+        Executor syncExecutor,
+        Logger logger
     ) {
         this.pluginConfig = pluginConfig;
         this.databaseManager = databaseManager;
         this.nationRepository = nationRepository;
         this.memberRepository = memberRepository;
         this.settingsRepository = settingsRepository;
+        this.directory = directory;
+        this.leaderboard = leaderboard;
         this.territoryRepository = territoryRepository;
+        this.territoryIndex = territoryIndex;
+        this.presence = presence;
         this.structureService = structureService;
+        this.blockEditService = blockEditService;
+        this.counterStore = counterStore;
         this.nationService = nationService;
         this.dbExecutor = dbExecutor;
+        this.backgroundExecutor = backgroundExecutor;
         this.syncExecutor = syncExecutor;
+        this.expiryQueue = new DeadlineQueue<>("NationSystem-TerritoryExpiry", backgroundExecutor, this::expireTerritories, logger);
+    }
+
+    public void startExpiryQueue() {
+        for (NationTerritory territory : territoryIndex.all()) {
+            scheduleExpiry(territory);
+        }
+        expiryQueue.start();
+    }
+
+    public void stopExpiryQueue() {
+        expiryQueue.stop();
     }
 
     public boolean hasPlayersInArea(World world, Location center, UUID ignore) {
         BlockArea area = BlockArea.fromCenter(center, pluginConfig.territorySize());
-        for (Player player : world.getPlayers()) {
-            if (player.getUniqueId().equals(ignore)) {
+        for (UUID playerUuid : presence.playersInArea(world.getName(), area.minX(), area.maxX(), area.minZ(), area.maxZ())) {
+            if (playerUuid.equals(ignore)) {
+                continue;
+            }
+            Player player = Bukkit.getPlayer(playerUuid);
+            if (player == null || player.getWorld() != world) {
                 continue;
             }
             Location loc = player.getLocation();
@@ -77,7 +123,7 @@ public class TerritoryService {
 
     public CompletableFuture<ServiceResult<TerritoryResult>> createTerritory(UUID playerUuid, Location center, String nationName) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             boolean hasNation = member.isPresent();
             long nationId;
             String finalNationName;
@@ -88,7 +134,7 @@ public class TerritoryService {
                     return ServiceResult.failure(Status.NOT_OWNER);
                 }
                 nationId = member.get().nationId();
-                Optional<Nation> nation = nationRepository.findById(nationId);
+                Optional<Nation> nation = directory.findNation(nationId);
                 if (nation.isEmpty()) {
                     return ServiceResult.failure(Status.NOT_IN_NATION);
                 }
@@ -98,7 +144,7 @@ public class TerritoryService {
                 if (nationName == null || nationName.isBlank()) {
                     return ServiceResult.failure(Status.NAME_REQUIRED);
                 }
-                if (nationRepository.findByName(nationName).isPresent()) {
+                if (directory.findNationByName(nationName).isPresent()) {
                     return ServiceResult.failure(Status.NAME_TAKEN);
                 }
                 finalNationName = nationName;
@@ -112,29 +158,25 @@ public class TerritoryService {
                     memberRepository.insertMember(connection, createdId, playerUuid, NationRole.OWNER);
                     return createdId;
                 });
-                nationService.clearMembership(playerUuid);
+                Nation created = new Nation(nationId, finalNationName, playerUuid, 1, 0L, 0L, 0);
+                directory.nationCreated(created, new NationMember(nationId, playerUuid, NationRole.OWNER));
+                leaderboard.nationCreated(created);
             }
 
-            int territoryCount = territoryRepository.countByNation(nationId);
+            int territoryCount = territoryIndex.countByNation(nationId);
             if (territoryCount >= pluginConfig.maxTerritoriesForLevel(nationLevel)) {
                 return ServiceResult.failure(Status.TOO_MANY_TERRITORIES);
             }
 
-            List<NationTerritory> territories = territoryRepository.listAll();
-            int minDistance = pluginConfig.territoryMinDistance();
-            for (NationTerritory territory : territories) {
-                if (!territory.world().equalsIgnoreCase(center.getWorld().getName())) {
-                    continue;
-                }
-                double distance = center.distance(new Location(
-                    center.getWorld(),
-                    territory.centerX(),
-                    territory.centerY(),
-                    territory.centerZ()
-                ));
-                if (distance < minDistance) {
-                    return ServiceResult.failure(Status.TOO_CLOSE);
-                }
+            boolean tooClose = territoryIndex.hasTerritoryWithin(
+                center.getWorld().getName(),
+                center.getBlockX(),
+                center.getBlockY(),
+                center.getBlockZ(),
+                pluginConfig.territoryMinDistance()
+            );
+            if (tooClose) {
+                return ServiceResult.failure(Status.TOO_CLOSE);
             }
 
             Instant expiresAt = Instant.now().plus(Duration.ofMinutes(pluginConfig.wallExpireMinutes()));
@@ -150,150 +192,193 @@ public class TerritoryService {
                 expiresAt
             );
             long territoryId = databaseManager.withTransaction(connection -> territoryRepository.insertTerritory(connection, territory));
+            NationTerritory stored = new NationTerritory(
+                territoryId,
+                territory.nationId(),
+                territory.world(),
+                territory.centerX(),
+                territory.centerY(),
+                territory.centerZ(),
+                territory.size(),
+                territory.wallStatus(),
+                territory.wallExpiresAt()
+            );
+            territoryIndex.put(stored);
+            scheduleExpiry(stored);
             return ServiceResult.success(new TerritoryResult(territoryId, nationId, finalNationName, createdNation));
         }, dbExecutor);
     }
 
     public CompletableFuture<ServiceResult<Void>> buildWall(UUID playerUuid, Location location) {
+        World world = location.getWorld();
         return CompletableFuture.supplyAsync(() -> {
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
-                return ServiceResult.failure(Status.NOT_IN_NATION);
+                return ServiceResult.<NationTerritory>failure(Status.NOT_IN_NATION);
             }
             if (member.get().role() != NationRole.OWNER) {
-                return ServiceResult.failure(Status.NOT_OWNER);
+                return ServiceResult.<NationTerritory>failure(Status.NOT_OWNER);
             }
-            List<NationTerritory> territories = territoryRepository.listByNation(member.get().nationId());
-            Optional<NationTerritory> territory = territories.stream()
-                .filter(value -> isInsideTerritory(location, value))
-                .findFirst();
+            long nationId = member.get().nationId();
+            Optional<NationTerritory> territory = territoryIndex
+                .findAt(world.getName(), location.getBlockX(), location.getBlockZ())
+                .filter(value -> value.nationId() == nationId);
             if (territory.isEmpty()) {
-                return ServiceResult.failure(Status.NOT_IN_TERRITORY);
+                return ServiceResult.<NationTerritory>failure(Status.NOT_IN_TERRITORY);
             }
-            if (territory.get().wallStatus() != WallStatus.PENDING) {
-                return ServiceResult.failure(Status.NO_PENDING_WALL);
+            if (territory.get().wallStatus() != WallStatus.PENDING || !wallsInProgress.add(territory.get().id())) {
+                return ServiceResult.<NationTerritory>failure(Status.NO_PENDING_WALL);
             }
-            CompletableFuture<Boolean> placedFuture = new CompletableFuture<>();
-            syncExecutor.execute(() -> placedFuture.complete(buildWallBlocks(location.getWorld(), territory.get())));
-            boolean placed = placedFuture.join();
-            if (!placed) {
-                return ServiceResult.failure(Status.STRUCTURE_MISSING);
+            return ServiceResult.success(territory.get());
+        }, dbExecutor).thenCompose(result -> {
+            if (!result.isSuccess()) {
+                return CompletableFuture.completedFuture(ServiceResult.<Void>failure(result.status()));
             }
-            databaseManager.withTransaction(connection -> {
-                territoryRepository.updateWallStatus(connection, territory.get().id(), WallStatus.BUILT, null);
-                return null;
-            });
-            return ServiceResult.success(null);
-        }, dbExecutor);
+            NationTerritory territory = result.data();
+            return CompletableFuture.supplyAsync(() -> buildWallBlocks(world, territory), syncExecutor)
+                .thenCompose(future -> future)
+                .thenApplyAsync(placed -> {
+                    if (!placed) {
+                        return ServiceResult.<Void>failure(Status.STRUCTURE_MISSING);
+                    }
+                    boolean updated = databaseManager.withTransaction(
+                        connection -> territoryRepository.updateWallStatus(connection, territory.id(), WallStatus.PENDING, WallStatus.BUILT, null)
+                    );
+                    if (!updated) {
+                        return ServiceResult.<Void>failure(Status.NO_PENDING_WALL);
+                    }
+                    expiryQueue.cancel(territory.id());
+                    territoryIndex.put(new NationTerritory(
+                        territory.id(),
+                        territory.nationId(),
+                        territory.world(),
+                        territory.centerX(),
+                        territory.centerY(),
+                        territory.centerZ(),
+                        territory.size(),
+                        WallStatus.BUILT,
+                        null
+                    ));
+                    return ServiceResult.<Void>success(null);
+                }, dbExecutor)
+                .whenComplete((ignored, error) -> wallsInProgress.remove(territory.id()));
+        });
     }
 
     public CompletableFuture<ServiceResult<List<NationTerritory>>> listTerritories(UUID playerUuid) {
         return CompletableFuture.supplyAsync(() -> {
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
-            List<NationTerritory> territories = territoryRepository.listByNation(member.get().nationId());
+            List<NationTerritory> territories = territoryIndex.listByNation(member.get().nationId());
             return ServiceResult.success(territories);
         }, dbExecutor);
     }
 
-    private boolean buildWallBlocks(World world, NationTerritory territory) {
+    private CompletableFuture<Boolean> buildWallBlocks(World world, NationTerritory territory) {
         if (!structureService.hasWallStructure() || !structureService.hasCenterStructure()) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
         Location center = new Location(world, territory.centerX(), territory.centerY(), territory.centerZ());
         int size = territory.size();
         int minY = Math.max(world.getMinHeight(), 0);
         int maxY = Math.min(world.getMaxHeight() - 1, 256);
 
-        BlockArea outer = BlockArea.fromCenter(center, size);
-        BlockArea inner = BlockArea.fromCenter(center, size - 8);
-        BlockArea grassOuter = BlockArea.fromCenter(center, size - 2);
-        BlockArea grassInner = BlockArea.fromCenter(center, size - 6);
-        BlockArea clearInner = BlockArea.fromCenter(center, size - 10);
-
-        fillRing(world, outer, inner, minY, maxY, Material.BEDROCK);
-        fillRing(world, grassOuter, grassInner, minY, minY, Material.GRASS_BLOCK);
-        clearColumn(world, center, 2, minY, maxY);
-        clearArea(world, clearInner, minY + 1, maxY);
-        fillArea(world, clearInner, minY, minY, Material.GRASS_BLOCK);
-
-        Location paste = center.clone().add(0, 1, 0);
-        boolean wallPlaced = structureService.placeWallStructure(paste);
-        boolean centerPlaced = structureService.placeCenterStructure(paste);
-        return wallPlaced && centerPlaced;
-    }
+        BlockEditService.Area outer = editArea(BlockArea.fromCenter(center, size));
+        BlockEditService.Area inner = editArea(BlockArea.fromCenter(center, size - 8));
+        BlockEditService.Area grassOuter = editArea(BlockArea.fromCenter(center, size - 2));
+        BlockEditService.Area grassInner = editArea(BlockArea.fromCenter(center, size - 6));
+        BlockEditService.Area clearInner = editArea(BlockArea.fromCenter(center, size - 10));
+        BlockEditService.Area column = new BlockEditService.Area(
+            center.getBlockX() - 2,
+            center.getBlockX() + 2,
+            center.getBlockZ() - 2,
+            center.getBlockZ() + 2
+        );
 
-    private void clearColumn(World world, Location center, int radius, int minY, int maxY) {
-        int cx = center.getBlockX();
-        int cz = center.getBlockZ();
-        for (int x = cx - radius; x <= cx + radius; x++) {
-            for (int z = cz - radius; z <= cz + radius; z++) {
-                for (int y = Math.max(minY, center.getBlockY() + 1); y <= maxY; y++) {
-                    world.getBlockAt(x, y, z).setType(Material.AIR, false);
-                }
+        List<BlockEditService.Fill> fills = List.of(
+            BlockEditService.Fill.ring(outer, inner, minY, maxY, Material.BEDROCK),
+            BlockEditService.Fill.ring(grassOuter, grassInner, minY, minY, Material.GRASS_BLOCK),
+            BlockEditService.Fill.area(column, Math.max(minY, center.getBlockY() + 1), maxY, Material.AIR),
+            BlockEditService.Fill.area(clearInner, minY + 1, maxY, Material.AIR),
+            BlockEditService.Fill.area(clearInner, minY, minY, Material.GRASS_BLOCK)
+        );
+        int[] announced = {0};
+        return blockEditService.submit(world, fills, percent -> {
+            int step = percent / 25 * 25;
+            if (step > announced[0] && step < 100) {
+                announced[0] = step;
+                nationService.sendNationMessage(territory.nationId(), "&6[Nation] &f성벽 건설 진행률: &e" + step + "%");
             }
-        }
+        }).future().thenApply(ignored -> {
+            Location paste = center.clone().add(0, 1, 0);
+            boolean wallPlaced = structureService.placeWallStructure(paste);
+            boolean centerPlaced = structureService.placeCenterStructure(paste);
+            return wallPlaced && centerPlaced;
+        });
     }
 
-    private void clearArea(World world, BlockArea area, int minY, int maxY) {
-        fillArea(world, area, minY, maxY, Material.AIR);
+    private static BlockEditService.Area editArea(BlockArea area) {
+        return new BlockEditService.Area(area.minX(), area.maxX(), area.minZ(), area.maxZ());
     }
 
-    private void fillArea(World world, BlockArea area, int minY, int maxY, Material material) {
-        for (int x = area.minX(); x <= area.maxX(); x++) {
-            for (int z = area.minZ(); z <= area.maxZ(); z++) {
-                for (int y = minY; y <= maxY; y++) {
-                    world.getBlockAt(x, y, z).setType(material, false);
-                }
+    public CompletableFuture<Void> expirePendingTerritories() {
+        return CompletableFuture.runAsync(() -> {
+            List<NationTerritory> expired = territoryRepository.listPendingExpired(Instant.now());
+            if (!expired.isEmpty()) {
+                expireTerritories(expired);
             }
-        }
+        }, backgroundExecutor);
     }
 
-    private void fillRing(World world, BlockArea outer, BlockArea inner, int minY, int maxY, Material material) {
-        for (int x = outer.minX(); x <= outer.maxX(); x++) {
-            for (int z = outer.minZ(); z <= outer.maxZ(); z++) {
-                boolean insideInner = x >= inner.minX() && x <= inner.maxX() && z >= inner.minZ() && z <= inner.maxZ();
-                if (insideInner) {
-                    continue;
-                }
-                for (int y = minY; y <= maxY; y++) {
-                    world.getBlockAt(x, y, z).setType(material, false);
-                }
-            }
+    private void scheduleExpiry(NationTerritory territory) {
+        if (territory.wallStatus() == WallStatus.PENDING && territory.wallExpiresAt() != null) {
+            expiryQueue.schedule(territory.id(), territory, territory.wallExpiresAt());
         }
     }
 
-    private boolean isInsideTerritory(Location location, NationTerritory territory) {
-        if (!location.getWorld().getName().equalsIgnoreCase(territory.world())) {
-            return false;
+    private void expireTerritories(List<NationTerritory> due) {
+        Set<Long> territoryIds = new LinkedHashSet<>();
+        for (NationTerritory territory : due) {
+            expiryQueue.cancel(territory.id());
+            if (!wallsInProgress.contains(territory.id())) {
+                territoryIds.add(territory.id());
+            }
         }
-        Location center = new Location(location.getWorld(), territory.centerX(), territory.centerY(), territory.centerZ());
-        BlockArea area = BlockArea.fromCenter(center, territory.size());
-        return area.contains(location.getBlockX(), location.getBlockZ());
-    }
-
-    public CompletableFuture<Void> expirePendingTerritories() {
-        return CompletableFuture.runAsync(() -> {
-            List<NationTerritory> expired = territoryRepository.listPendingExpired(Instant.now());
-            for (NationTerritory territory : expired) {
-                boolean deletedNation = databaseManager.withTransaction(connection -> {
-                    territoryRepository.deleteTerritory(connection, territory.id());
-                    int remaining = territoryRepository.countByNation(connection, territory.nationId());
-                    if (remaining == 0) {
-                        memberRepository.deleteByNation(connection, territory.nationId());
-                        settingsRepository.deleteByNation(connection, territory.nationId());
-                        nationRepository.deleteNation(connection, territory.nationId());
-                        return true;
-                    }
-                    return false;
-                });
-                if (deletedNation) {
-                    nationService.clearMembershipsForNation(territory.nationId());
-                }
+        if (territoryIds.isEmpty()) {
+            return;
+        }
+        ExpiryResult result = databaseManager.withTransaction(connection -> {
+            List<NationTerritory> pending = territoryRepository.lockPending(connection, territoryIds);
+            if (pending.isEmpty()) {
+                return new ExpiryResult(List.of(), List.of(), List.of());
             }
-        }, dbExecutor);
+            List<Long> deleted = pending.stream().map(NationTerritory::id).toList();
+            Set<Long> nationIds = new LinkedHashSet<>();
+            for (NationTerritory territory : pending) {
+                nationIds.add(territory.nationId());
+            }
+            territoryRepository.deleteTerritories(connection, deleted);
+            List<Long> orphaned = nationRepository.listNationsWithoutTerritories(connection, nationIds);
+            if (orphaned.isEmpty()) {
+                return new ExpiryResult(deleted, List.of(), List.of());
+            }
+            List<UUID> members = memberRepository.listMemberUuids(connection, orphaned);
+            memberRepository.deleteByNations(connection, orphaned);
+            settingsRepository.deleteByNations(connection, orphaned);
+            nationRepository.deleteNations(connection, orphaned);
+            return new ExpiryResult(deleted, orphaned, members);
+        });
+        for (long territoryId : result.deletedTerritories()) {
+            territoryIndex.remove(territoryId);
+        }
+        for (long nationId : result.deletedNations()) {
+            counterStore.forget(nationId);
+        }
+        directory.nationsDeleted(result.deletedNations(), result.removedMembers());
+        leaderboard.nationsDeleted(result.deletedNations());
+        nationService.clearNationChat(result.removedMembers());
     }
 
     public enum Status {
@@ -310,6 +395,9 @@ public class TerritoryService {
         ERROR
     }
 
+    private record ExpiryResult(List<Long> deletedTerritories, List<Long> deletedNations, List<UUID> removedMembers) {
+    }
+
     public record TerritoryResult(long territoryId, long nationId, String nationName, boolean createdNation) {
     }
 
@@ -0,0 +1,141 @@
+package kr.lunaf.nationSystem.service;
+
+import kr.lunaf.nationSystem.config.WarConfig;
+import kr.lunaf.nationSystem.domain.WarMatchEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public class WarMatchmaker {
+    private final int[] thresholdSeconds;
+    private final int[] thresholdDiffs;
+    private final Map<Long, WarMatchEntry> arrivals = new LinkedHashMap<>();
+    private final NavigableMap<Integer, LinkedHashMap<Long, WarMatchEntry>> buckets = new TreeMap<>();
+
+    public WarMatchmaker(List<WarConfig.MatchThreshold> thresholds) {
+        List<WarConfig.MatchThreshold> sorted = new ArrayList<>(thresholds);
+        sorted.sort(Comparator.comparingInt(WarConfig.MatchThreshold::timeSeconds));
+        this.thresholdSeconds = new int[sorted.size()];
+        this.thresholdDiffs = new int[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            thresholdSeconds[i] = sorted.get(i).timeSeconds();
+            thresholdDiffs[i] = sorted.get(i).maxLevelDiff();
+        }
+    }
+
+    public synchronized boolean enqueue(WarMatchEntry entry) {
+        if (arrivals.containsKey(entry.nationId())) {
+            return false;
+        }
+        arrivals.put(entry.nationId(), entry);
+        buckets.computeIfAbsent(entry.nationLevel(), ignored -> new LinkedHashMap<>()).put(entry.nationId(), entry);
+        return true;
+    }
+
+    public synchronized boolean remove(long nationId) {
+        WarMatchEntry entry = arrivals.remove(nationId);
+        if (entry == null) {
+            return false;
+        }
+        LinkedHashMap<Long, WarMatchEntry> bucket = buckets.get(entry.nationLevel());
+        if (bucket != null) {
+            bucket.remove(nationId);
+            if (bucket.isEmpty()) {
+                buckets.remove(entry.nationLevel());
+            }
+        }
+        return true;
+    }
+
+    public synchronized boolean contains(long nationId) {
+        return arrivals.containsKey(nationId);
+    }
+
+    public synchronized int size() {
+        return arrivals.size();
+    }
+
+    public synchronized List<WarMatchEntry> entries() {
+        return new ArrayList<>(arrivals.values());
+    }
+
+    public synchronized List<Long> clear() {
+        List<Long> removed = new ArrayList<>(arrivals.keySet());
+        arrivals.clear();
+        buckets.clear();
+        return removed;
+    }
+
+    public synchronized List<Match> matchAll(long nowMillis) {
+        if (arrivals.size() < 2) {
+            return List.of();
+        }
+        List<Match> matches = new ArrayList<>();
+        WarMatchEntry[] waiting = arrivals.values().toArray(new WarMatchEntry[0]);
+        for (WarMatchEntry entry : waiting) {
+            if (!arrivals.containsKey(entry.nationId())) {
+                continue;
+            }
+            int waitedSeconds = (int) Math.max(0L, (nowMillis - entry.enqueuedAtMillis()) / 1000L);
+            WarMatchEntry opponent = findOpponent(entry, allowedDiff(waitedSeconds));
+            if (opponent != null) {
+                remove(entry.nationId());
+                remove(opponent.nationId());
+                matches.add(new Match(entry, opponent));
+            }
+        }
+        return matches;
+    }
+
+    public int allowedDiff(int waitedSeconds) {
+        for (int i = 0; i < thresholdSeconds.length; i++) {
+            if (waitedSeconds <= thresholdSeconds[i]) {
+                return thresholdDiffs[i];
+            }
+        }
+        return thresholdDiffs.length == 0 ? 0 : thresholdDiffs[thresholdDiffs.length - 1];
+    }
+
+    private WarMatchEntry findOpponent(WarMatchEntry entry, int allowedDiff) {
+        int level = entry.nationLevel();
+        Integer below = buckets.floorKey(level);
+        Integer above = buckets.higherKey(level);
+        while (below != null || above != null) {
+            boolean takeBelow = above == null || (below != null && level - below <= above - level);
+            int key = takeBelow ? below : above;
+            if (Math.abs(key - level) > allowedDiff) {
+                return null;
+            }
+            WarMatchEntry candidate = oldest(buckets.get(key), entry.nationId());
+            if (candidate != null) {
+                return candidate;
+            }
+            if (takeBelow) {
+                below = buckets.lowerKey(key);
+            } else {
+                above = buckets.higherKey(key);
+            }
+        }
+        return null;
+    }
+
+    private WarMatchEntry oldest(LinkedHashMap<Long, WarMatchEntry> bucket, long excludeNationId) {
+        Iterator<WarMatchEntry> iterator = bucket.values().iterator();
+        while (iterator.hasNext()) {
+            WarMatchEntry candidate = iterator.next();
+            if (candidate.nationId() != excludeNationId) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    public record Match(WarMatchEntry first, WarMatchEntry second) {
+    }
+}
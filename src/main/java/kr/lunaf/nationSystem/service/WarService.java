@@ -1,54 +1,93 @@
 package kr.lunaf.nationSystem.service;
 
 import kr.lunaf.nationSystem.config.WarConfig;
+import kr.lunaf.nationSystem.db.DatabaseManager;
 import kr.lunaf.nationSystem.domain.Nation;
 import kr.lunaf.nationSystem.domain.NationMember;
 import kr.lunaf.nationSystem.domain.NationRole;
 import kr.lunaf.nationSystem.domain.WarMatchEntry;
 import kr.lunaf.nationSystem.domain.WarPhase;
 import kr.lunaf.nationSystem.domain.WarState;
-import kr.lunaf.nationSystem.repository.NationMemberRepository;
-import kr.lunaf.nationSystem.repository.NationRepository;
+import kr.lunaf.nationSystem.repository.WarRepository;
+import kr.lunaf.nationSystem.repository.WarRepository.StoredPlayerStats;
+import kr.lunaf.nationSystem.repository.WarRepository.StoredResult;
+import kr.lunaf.nationSystem.repository.WarRepository.StoredWar;
+import kr.lunaf.nationSystem.util.DeadlineQueue;
 import org.bukkit.Bukkit;
 import org.bukkit.boss.BarColor;
 import org.bukkit.boss.BarStyle;
 import org.bukkit.boss.BossBar;
 import org.bukkit.entity.Player;
 
+import java.sql.Connection;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.logging.Logger;
 
 public class WarService {
     private final WarConfig warConfig;
-    private final NationRepository nationRepository;
-    private final NationMemberRepository memberRepository;
+    private final DatabaseManager databaseManager;
+    private final WarRepository warRepository;
+    private final NationDirectory directory;
+    private final OnlineRoster onlineRoster;
     private final NationService nationService;
+    private final NationCounterStore counterStore;
     private final ExecutorService dbExecutor;
+    private final ExecutorService backgroundExecutor;
+    private final Logger logger;
+    private final Object writeLock = new Object();
+    private CompletableFuture<Void> pendingWrites = CompletableFuture.completedFuture(null);
     private volatile boolean matchOpen;
-    private final Map<Long, WarMatchEntry> matchQueue = new ConcurrentHashMap<>();
+    private final WarMatchmaker matchmaker;
     private final Map<Long, WarState> wars = new ConcurrentHashMap<>();
-    private final Map<Long, BossBar> bossBars = new ConcurrentHashMap<>();
+    private final Map<Long, WarTally> tallies = new ConcurrentHashMap<>();
+    private final Map<Long, WarBar> bossBars = new ConcurrentHashMap<>();
+    private final DeadlineQueue<WarEvent, WarEvent> events;
 
     public WarService(
         WarConfig warConfig,
-        NationRepository nationRepository,
-        NationMemberRepository memberRepository,
+        DatabaseManager databaseManager,
+        WarRepository warRepository,
+        NationDirectory directory,
+        OnlineRoster onlineRoster,
         NationService nationService,
-        ExecutorService dbExecutor
+        NationCounterStore counterStore,
+        ExecutorService dbExecutor,
+        ExecutorService backgroundExecutor,
+        Logger logger
     ) {
         this.warConfig = warConfig;
-        this.nationRepository = nationRepository;
-        this.memberRepository = memberRepository;
+        this.databaseManager = databaseManager;
+        this.warRepository = warRepository;
+        this.directory = directory;
+        this.onlineRoster = onlineRoster;
         this.nationService = nationService;
+        this.counterStore = counterStore;
         this.dbExecutor = dbExecutor;
+        this.backgroundExecutor = backgroundExecutor;
+        this.logger = logger;
         this.matchOpen = warConfig.matchOpen();
+        this.matchmaker = new WarMatchmaker(warConfig.matchThresholds());
+        this.events = new DeadlineQueue<>("NationSystem-WarEvents", backgroundExecutor, this::handleEvents, logger);
+    }
+
+    public void startEvents() {
+        events.start();
+    }
+
+    public void stopEvents() {
+        events.stop();
     }
 
     public CompletableFuture<ServiceResult<Void>> enqueue(UUID playerUuid) {
@@ -56,7 +95,7 @@ public class WarService {
             if (!matchOpen) {
                 return ServiceResult.failure(Status.MATCH_CLOSED);
             }
-            Optional<NationMember> member = memberRepository.findByPlayer(playerUuid);
+            Optional<NationMember> member = directory.findMember(playerUuid);
             if (member.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
@@ -64,70 +103,160 @@ public class WarService {
                 return ServiceResult.failure(Status.OWNER_ONLY);
             }
             long nationId = member.get().nationId();
-            if (wars.containsKey(nationId) || matchQueue.containsKey(nationId)) {
+            if (wars.containsKey(nationId) || matchmaker.contains(nationId)) {
                 return ServiceResult.failure(Status.ALREADY_QUEUED);
             }
-            Optional<Nation> nation = nationRepository.findById(nationId);
+            Optional<Nation> nation = directory.findNation(nationId);
             if (nation.isEmpty()) {
                 return ServiceResult.failure(Status.NOT_IN_NATION);
             }
-            matchQueue.put(nationId, new WarMatchEntry(nationId, nation.get().level(), 0));
+            WarMatchEntry entry = new WarMatchEntry(nationId, nation.get().level(), System.currentTimeMillis());
+            if (!matchmaker.enqueue(entry)) {
+                return ServiceResult.failure(Status.ALREADY_QUEUED);
+            }
+            try {
+                databaseManager.withTransaction(connection -> {
+                    warRepository.enqueue(connection, entry);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                matchmaker.remove(nationId);
+                return ServiceResult.failure(Status.ERROR);
+            }
             return ServiceResult.success(null);
         }, dbExecutor);
     }
 
     public void tickMatching() {
-        if (!matchOpen || matchQueue.isEmpty()) {
+        if (!matchOpen) {
             return;
         }
-        List<WarMatchEntry> entries = new ArrayList<>(matchQueue.values());
-        entries.sort(Comparator.comparingInt(WarMatchEntry::waitedSeconds));
-        for (WarMatchEntry entry : entries) {
-            matchQueue.computeIfPresent(entry.nationId(), (id, value) ->
-                new WarMatchEntry(value.nationId(), value.nationLevel(), value.waitedSeconds() + 1)
-            );
+        List<WarMatchmaker.Match> matches = matchmaker.matchAll(System.currentTimeMillis());
+        if (matches.isEmpty()) {
+            return;
         }
-        entries = new ArrayList<>(matchQueue.values());
-        for (WarMatchEntry entry : entries) {
-            WarMatchEntry updated = matchQueue.get(entry.nationId());
-            if (updated == null) {
+        List<Long> matched = new ArrayList<>(matches.size() * 2);
+        for (WarMatchmaker.Match match : matches) {
+            matched.add(match.first().nationId());
+            matched.add(match.second().nationId());
+        }
+        persist(connection -> warRepository.dequeue(connection, matched));
+        for (WarMatchmaker.Match match : matches) {
+            startWar(match.first().nationId(), match.second().nationId());
+        }
+    }
+
+    public void recover() {
+        long now = System.currentTimeMillis();
+        Map<Long, List<StoredPlayerStats>> playerTallies = warRepository.listPlayerTallies();
+        Map<Long, List<String>> placedBlocks = warRepository.listPlacedBlocks();
+        for (StoredWar stored : warRepository.listWars()) {
+            long battleAt = stored.battleAt().toEpochMilli();
+            WarPhase phase = now < battleAt ? WarPhase.PREPARE : WarPhase.ACTIVE;
+            WarState state = new WarState(stored.nationA(), stored.nationB(), phase, battleAt, stored.endsAt().toEpochMilli());
+            wars.put(stored.nationA(), state);
+            wars.put(stored.nationB(), state);
+            tallies.put(stored.nationA(), WarTally.restore(
+                stored.nationA(),
+                stored.nationB(),
+                stored.killsA(),
+                stored.killsB(),
+                stored.coreDamageA(),
+                stored.coreDamageB(),
+                playerTallies.getOrDefault(stored.nationA(), List.of()).stream()
+                    .map(entry -> new WarTally.PlayerStats(entry.playerUuid(), entry.nationId(), entry.kills(), entry.deaths(), entry.coreDamage()))
+                    .toList(),
+                placedBlocks.getOrDefault(stored.nationA(), List.of())
+            ));
+            if (!stored.endsAt().isAfter(Instant.ofEpochMilli(now))) {
+                endWar(stored.nationA(), stored.nationB());
                 continue;
             }
-            int allowedDiff = allowedDiff(updated.waitedSeconds());
-            Optional<WarMatchEntry> opponent = entries.stream()
-                .filter(other -> other.nationId() != updated.nationId())
-                .filter(other -> Math.abs(updated.nationLevel() - other.nationLevel()) <= allowedDiff)
-                .findFirst();
-            if (opponent.isPresent()) {
-                startWar(updated.nationId(), opponent.get().nationId());
-                matchQueue.remove(updated.nationId());
-                matchQueue.remove(opponent.get().nationId());
-                break;
+            if (phase != stored.phase()) {
+                persist(connection -> warRepository.updatePhase(connection, stored.nationA(), phase));
+            }
+            scheduleEvents(state, now);
+        }
+        List<Long> stale = new ArrayList<>();
+        for (WarMatchEntry entry : warRepository.listQueue()) {
+            if (wars.containsKey(entry.nationId()) || directory.findNation(entry.nationId()).isEmpty()) {
+                stale.add(entry.nationId());
+                continue;
             }
+            matchmaker.enqueue(entry);
+        }
+        if (!stale.isEmpty()) {
+            persist(connection -> warRepository.dequeue(connection, stale));
         }
     }
 
-    public void tickWars() {
+    public CompletableFuture<Void> checkpoint() {
         if (wars.isEmpty()) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
-        List<WarState> states = new ArrayList<>(wars.values());
-        for (WarState state : states) {
-            int remaining = state.remainingSeconds() - 1;
-            WarPhase phase = state.phase();
-            if (remaining <= 0) {
-                endWar(state.nationA(), state.nationB(), "무승부");
+        Map<Long, StoredWar> snapshot = new HashMap<>();
+        Map<Long, List<StoredPlayerStats>> players = new HashMap<>();
+        Map<Long, WarTally.PlacedChanges> placed = new HashMap<>();
+        Map<Long, WarTally> checkpointed = new HashMap<>();
+        for (WarState state : wars.values()) {
+            if (snapshot.putIfAbsent(state.nationA(), toStored(state)) != null) {
                 continue;
             }
-            if (phase == WarPhase.PREPARE && remaining <= warConfig.battleSeconds()) {
-                phase = WarPhase.ACTIVE;
-                sendBoth(state, "&6[Nation] &f전쟁이 시작되었습니다!");
+            WarTally tally = tallies.get(state.nationA());
+            if (tally != null) {
+                checkpointed.put(state.nationA(), tally);
+                players.put(state.nationA(), storedPlayerStats(tally));
+                placed.put(state.nationA(), tally.placedChanges());
+            }
+        }
+        return persist(connection -> {
+            warRepository.checkpoint(connection, snapshot.values());
+            for (Map.Entry<Long, List<StoredPlayerStats>> entry : players.entrySet()) {
+                warRepository.savePlayerTallies(connection, entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<Long, WarTally.PlacedChanges> entry : placed.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    warRepository.savePlacedBlocks(connection, entry.getKey(), entry.getValue().added(), entry.getValue().removed());
+                }
+            }
+        }, () -> placed.forEach((nationA, changes) -> checkpointed.get(nationA).placedChangesSaved(changes)));
+    }
+
+    public CompletableFuture<Void> flushWrites() {
+        synchronized (writeLock) {
+            return pendingWrites;
+        }
+    }
+
+    public void renderBossBars() {
+        if (!bossBars.isEmpty()) {
+            Iterator<Map.Entry<Long, WarBar>> iterator = bossBars.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, WarBar> entry = iterator.next();
+                if (!wars.containsKey(entry.getKey())) {
+                    entry.getValue().bar().removeAll();
+                    iterator.remove();
+                }
+            }
+        }
+        if (wars.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Long, WarState> entry : wars.entrySet()) {
+            WarState state = entry.getValue();
+            WarBar warBar = bossBars.computeIfAbsent(entry.getKey(), key ->
+                new WarBar(Bukkit.createBossBar("War", BarColor.RED, BarStyle.SOLID), new HashSet<>())
+            );
+            String title = warTitle(state, entry.getKey(), now);
+            if (title.equals(warBar.lastTitle)) {
+                continue;
             }
-            WarState updated = new WarState(state.nationA(), state.nationB(), phase, remaining);
-            wars.put(state.nationA(), updated);
-            wars.put(state.nationB(), updated);
-            updateBossBar(updated);
-            notifyCountdown(updated);
+            warBar.lastTitle = title;
+            warBar.bar().setTitle(title);
+            double total = Math.max(1L, state.endsAtMillis() - (state.battleAtMillis() - warConfig.prepareSeconds() * 1000L));
+            warBar.bar().setProgress(Math.max(0.0, Math.min(1.0, (state.endsAtMillis() - now) / total)));
+            syncViewers(entry.getKey(), warBar);
         }
     }
 
@@ -147,108 +276,298 @@ public class WarService {
         return Optional.ofNullable(wars.get(nationId));
     }
 
+    public boolean recordKill(UUID killerUuid, long killerNationId, UUID victimUuid, long victimNationId) {
+        WarTally tally = activeTally(killerNationId, victimNationId);
+        return tally != null && tally.recordKill(killerNationId, killerUuid, victimUuid);
+    }
+
+    public boolean recordCoreDamage(UUID playerUuid, long attackerNationId, long defenderNationId, String blockKey) {
+        WarTally tally = activeTally(attackerNationId, defenderNationId);
+        return tally != null && tally.recordCoreDamage(attackerNationId, playerUuid, blockKey);
+    }
+
+    public void recordPlacement(long nationId, String blockKey) {
+        WarState state = wars.get(nationId);
+        if (state == null) {
+            return;
+        }
+        WarTally tally = tallies.get(state.nationA());
+        if (tally != null) {
+            tally.markPlaced(blockKey);
+        }
+    }
+
     public void removeFromQueue(long nationId) {
-        matchQueue.remove(nationId);
-        BossBar bar = bossBars.remove(nationId);
-        if (bar != null) {
-            bar.removeAll();
+        if (matchmaker.remove(nationId)) {
+            persist(connection -> warRepository.dequeue(connection, List.of(nationId)));
         }
     }
 
     public void clearMatching() {
-        for (Long nationId : new ArrayList<>(matchQueue.keySet())) {
-            removeFromQueue(nationId);
+        List<Long> cleared = matchmaker.clear();
+        if (!cleared.isEmpty()) {
+            persist(connection -> warRepository.dequeue(connection, cleared));
         }
     }
 
     private void startWar(long nationA, long nationB) {
-        int total = warConfig.prepareSeconds() + warConfig.battleSeconds();
-        WarState state = new WarState(nationA, nationB, WarPhase.PREPARE, total);
+        long now = System.currentTimeMillis();
+        long battleAt = now + warConfig.prepareSeconds() * 1000L;
+        WarState state = new WarState(nationA, nationB, WarPhase.PREPARE, battleAt, battleAt + warConfig.battleSeconds() * 1000L);
+        tallies.put(nationA, new WarTally(nationA, nationB));
         wars.put(nationA, state);
         wars.put(nationB, state);
+        StoredWar stored = toStored(state);
+        persist(connection -> {
+            warRepository.deleteWarDetails(connection, nationA);
+            warRepository.insertWar(connection, stored);
+        });
+        scheduleEvents(state, now);
         sendBoth(state, "&6[Nation] &f전쟁 매칭이 완료되었습니다.");
-        updateBossBar(state);
     }
 
-    private void endWar(long nationA, long nationB, String reason) {
+    private void endWar(long nationA, long nationB) {
         WarState state = wars.remove(nationA);
         wars.remove(nationB);
         if (state == null) {
             return;
         }
-        sendBoth(state, "&6[Nation] &f전쟁 종료: &e" + reason);
-        removeBossBar(nationA);
-        removeBossBar(nationB);
+        for (WarEventType type : WarEventType.values()) {
+            events.cancel(new WarEvent(state.nationA(), type));
+        }
+        WarTally tally = tallies.remove(state.nationA());
+        if (tally == null) {
+            tally = new WarTally(state.nationA(), state.nationB());
+        }
+        WarTally.Totals totalsA = tally.totals(state.nationA());
+        WarTally.Totals totalsB = tally.totals(state.nationB());
+        long pointsA = points(totalsA);
+        long pointsB = points(totalsB);
+        Long winnerId = pointsA == pointsB ? null : pointsA > pointsB ? state.nationA() : state.nationB();
+        Map<Long, Long> scores = new HashMap<>();
+        addScore(scores, state.nationA(), pointsA + (winnerId != null && winnerId == state.nationA() ? warConfig.winScore() : 0L));
+        addScore(scores, state.nationB(), pointsB + (winnerId != null && winnerId == state.nationB() ? warConfig.winScore() : 0L));
+        StoredResult result = new StoredResult(
+            state.nationA(),
+            state.nationB(),
+            winnerId,
+            pointsA,
+            pointsB,
+            totalsA.kills(),
+            totalsB.kills(),
+            totalsA.coreDamage(),
+            totalsB.coreDamage(),
+            Instant.ofEpochMilli(state.battleAtMillis()),
+            Instant.now()
+        );
+        List<StoredPlayerStats> playerStats = storedPlayerStats(tally);
+        persist(connection -> {
+            long resultId = warRepository.insertResult(connection, result);
+            warRepository.insertPlayerStats(connection, resultId, playerStats);
+            counterStore.writeScores(connection, scores);
+            warRepository.deleteWarDetails(connection, state.nationA());
+            warRepository.deleteWar(connection, state.nationA());
+        }, () -> counterStore.scoresCommitted(scores));
+        String nameA = directory.findNation(state.nationA()).map(Nation::name).orElse("?");
+        String nameB = directory.findNation(state.nationB()).map(Nation::name).orElse("?");
+        String outcome = winnerId == null ? "무승부" : (winnerId == state.nationA() ? nameA : nameB) + " 승리";
+        sendBoth(state, "&6[Nation] &f전쟁 종료: &e" + outcome + " &7(" + nameA + " " + pointsA + " : " + pointsB + " " + nameB + ")");
     }
 
-    private void sendBoth(WarState state, String message) {
-        nationService.sendNationMessage(state.nationA(), message);
-        nationService.sendNationMessage(state.nationB(), message);
+    private WarTally activeTally(long attackerNationId, long defenderNationId) {
+        if (attackerNationId == defenderNationId) {
+            return null;
+        }
+        WarState state = wars.get(attackerNationId);
+        if (state == null || state.phase() != WarPhase.ACTIVE) {
+            return null;
+        }
+        if (state.nationA() != defenderNationId && state.nationB() != defenderNationId) {
+            return null;
+        }
+        return tallies.get(state.nationA());
+    }
+
+    private long points(WarTally.Totals totals) {
+        return totals.kills() * warConfig.killScore() + totals.coreDamage() * warConfig.coreDamageScore();
+    }
+
+    private static void addScore(Map<Long, Long> scores, long nationId, long score) {
+        if (score != 0L) {
+            scores.put(nationId, score);
+        }
     }
 
-    private int allowedDiff(int waitedSeconds) {
-        for (WarConfig.MatchThreshold threshold : warConfig.matchThresholds()) {
-            if (waitedSeconds <= threshold.timeSeconds()) {
-                return threshold.maxLevelDiff();
+    private void scheduleEvents(WarState state, long now) {
+        for (WarEventType type : WarEventType.values()) {
+            long at = type.at(state);
+            if (at > now) {
+                events.schedule(new WarEvent(state.nationA(), type), new WarEvent(state.nationA(), type), Instant.ofEpochMilli(at));
             }
         }
-        return warConfig.matchThresholds().get(warConfig.matchThresholds().size() - 1).maxLevelDiff();
     }
 
-    private void updateBossBar(WarState state) {
-        BossBar barA = bossBars.computeIfAbsent(state.nationA(), key ->
-            Bukkit.createBossBar("War", BarColor.RED, BarStyle.SOLID)
-        );
-        BossBar barB = bossBars.computeIfAbsent(state.nationB(), key ->
-            Bukkit.createBossBar("War", BarColor.RED, BarStyle.SOLID)
+    private void handleEvents(List<WarEvent> due) {
+        for (WarEvent event : due) {
+            WarState state = wars.get(event.nationA());
+            if (state == null || state.nationA() != event.nationA()) {
+                continue;
+            }
+            switch (event.type()) {
+                case WARN_120 -> sendBoth(state, "&6[Nation] &f전쟁이 2분 뒤 시작됩니다.");
+                case WARN_60 -> sendBoth(state, "&6[Nation] &f전쟁이 1분 뒤 시작됩니다.");
+                case WARN_10 -> sendBoth(state, "&6[Nation] &f전쟁이 10초 뒤 시작됩니다.");
+                case BATTLE -> {
+                    if (state.phase() == WarPhase.ACTIVE) {
+                        continue;
+                    }
+                    WarState active = state.withPhase(WarPhase.ACTIVE);
+                    wars.put(active.nationA(), active);
+                    wars.put(active.nationB(), active);
+                    persist(connection -> warRepository.updatePhase(connection, active.nationA(), WarPhase.ACTIVE));
+                    sendBoth(active, "&6[Nation] &f전쟁이 시작되었습니다!");
+                }
+                case END -> endWar(state.nationA(), state.nationB());
+            }
+        }
+    }
+
+    private StoredWar toStored(WarState state) {
+        WarTally tally = tallies.get(state.nationA());
+        WarTally.Totals totalsA = tally == null ? new WarTally.Totals(0L, 0L, 0L) : tally.totals(state.nationA());
+        WarTally.Totals totalsB = tally == null ? new WarTally.Totals(0L, 0L, 0L) : tally.totals(state.nationB());
+        return new StoredWar(
+            state.nationA(),
+            state.nationB(),
+            state.phase(),
+            Instant.ofEpochMilli(state.battleAtMillis()),
+            Instant.ofEpochMilli(state.endsAtMillis()),
+            totalsA.kills(),
+            totalsB.kills(),
+            totalsA.coreDamage(),
+            totalsB.coreDamage()
         );
-        String title = warTitle(state);
-        barA.setTitle(title);
-        barB.setTitle(title);
-        double progress = Math.max(0.0, Math.min(1.0,
-            state.remainingSeconds() / (double) (warConfig.prepareSeconds() + warConfig.battleSeconds())));
-        barA.setProgress(progress);
-        barB.setProgress(progress);
-        attachPlayers(state.nationA(), barA);
-        attachPlayers(state.nationB(), barB);
-    }
-
-    private void attachPlayers(long nationId, BossBar bar) {
-        for (UUID memberUuid : memberRepository.listMemberUuids(nationId)) {
+    }
+
+    private List<StoredPlayerStats> storedPlayerStats(WarTally tally) {
+        List<StoredPlayerStats> stats = new ArrayList<>();
+        for (WarTally.PlayerStats entry : tally.playerStats()) {
+            stats.add(new StoredPlayerStats(entry.playerUuid(), entry.nationId(), entry.kills(), entry.deaths(), entry.coreDamage()));
+        }
+        return stats;
+    }
+
+    private CompletableFuture<Void> persist(WarWrite write) {
+        return persist(write, () -> {
+        });
+    }
+
+    private CompletableFuture<Void> persist(WarWrite write, Runnable afterCommit) {
+        synchronized (writeLock) {
+            pendingWrites = pendingWrites
+                .thenRunAsync(() -> {
+                    databaseManager.withTransaction(connection -> {
+                        write.apply(connection);
+                        return null;
+                    });
+                    afterCommit.run();
+                }, backgroundExecutor)
+                .exceptionally(error -> {
+                    logger.warning("Failed to persist war state: " + error.getMessage());
+                    return null;
+                });
+            return pendingWrites;
+        }
+    }
+
+    @FunctionalInterface
+    private interface WarWrite {
+        void apply(Connection connection) throws Exception;
+    }
+
+    private void sendBoth(WarState state, String message) {
+        nationService.sendNationMessage(state.nationA(), message);
+        nationService.sendNationMessage(state.nationB(), message);
+    }
+
+    private void syncViewers(long nationId, WarBar warBar) {
+        Set<UUID> online = onlineRoster.onlineMemberUuids(nationId);
+        Iterator<UUID> iterator = warBar.viewers().iterator();
+        while (iterator.hasNext()) {
+            UUID viewer = iterator.next();
+            if (!online.contains(viewer)) {
+                iterator.remove();
+                Player player = Bukkit.getPlayer(viewer);
+                if (player != null) {
+                    warBar.bar().removePlayer(player);
+                }
+            }
+        }
+        for (UUID memberUuid : online) {
+            if (warBar.viewers().contains(memberUuid)) {
+                continue;
+            }
             Player player = Bukkit.getPlayer(memberUuid);
-            if (player != null && !bar.getPlayers().contains(player)) {
-                bar.addPlayer(player);
+            if (player != null) {
+                warBar.bar().addPlayer(player);
+                warBar.viewers().add(memberUuid);
             }
         }
     }
 
-    private void removeBossBar(long nationId) {
-        BossBar bar = bossBars.remove(nationId);
-        if (bar != null) {
-            bar.removeAll();
+    private String warTitle(WarState state, long nationId, long now) {
+        long remaining = Math.max(0L, (state.endsAtMillis() - now + 999L) / 1000L);
+        if (now < state.battleAtMillis()) {
+            return "전쟁 준비 중... (" + remaining + "초)";
+        }
+        WarTally tally = tallies.get(state.nationA());
+        if (tally == null) {
+            return "전쟁 진행 중... (" + remaining + "초)";
         }
+        long opponentId = state.nationA() == nationId ? state.nationB() : state.nationA();
+        return "전쟁 진행 중... (" + remaining + "초) 점수 " + points(tally.totals(nationId)) + " : " + points(tally.totals(opponentId));
     }
 
-    private String warTitle(WarState state) {
-        if (state.phase() == WarPhase.PREPARE) {
-            return "전쟁 준비 중... (" + state.remainingSeconds() + "초)";
+    private static final class WarBar {
+        private final BossBar bar;
+        private final Set<UUID> viewers;
+        private String lastTitle;
+
+        private WarBar(BossBar bar, Set<UUID> viewers) {
+            this.bar = bar;
+            this.viewers = viewers;
+        }
+
+        private BossBar bar() {
+            return bar;
+        }
+
+        private Set<UUID> viewers() {
+            return viewers;
         }
-        return "전쟁 진행 중... (" + state.remainingSeconds() + "초)";
     }
 
-    private void notifyCountdown(WarState state) {
-        int remaining = state.remainingSeconds();
-        if (state.phase() == WarPhase.PREPARE) {
-            if (remaining == warConfig.battleSeconds() + 120) {
-                sendBoth(state, "&6[Nation] &f전쟁이 2분 뒤 시작됩니다.");
-            } else if (remaining == warConfig.battleSeconds() + 60) {
-                sendBoth(state, "&6[Nation] &f전쟁이 1분 뒤 시작됩니다.");
-            } else if (remaining == warConfig.battleSeconds() + 10) {
-                sendBoth(state, "&6[Nation] &f전쟁이 10초 뒤 시작됩니다.");
-            }
+    private enum WarEventType {
+        WARN_120,
+        WARN_60,
+        WARN_10,
+        BATTLE,
+        END;
+
+        private long at(WarState state) {
+            return switch (this) {
+                case WARN_120 -> state.battleAtMillis() - 120_000L;
+                case WARN_60 -> state.battleAtMillis() - 60_000L;
+                case WARN_10 -> state.battleAtMillis() - 10_000L;
+                case BATTLE -> state.battleAtMillis();
+                case END -> state.endsAtMillis();
+            };
         }
     }
 
+    private record WarEvent(long nationA, WarEventType type) {
+    }
+
     public enum Status {
         SUCCESS,
         NOT_IN_NATION,
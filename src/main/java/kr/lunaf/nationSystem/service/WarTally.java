@@ -0,0 +1,180 @@
+package kr.lunaf.nationSystem.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public class WarTally {
+    private final long nationA;
+    private final long nationB;
+    private final Side sideA = new Side();
+    private final Side sideB = new Side();
+    private final Map<UUID, PlayerTally> players = new ConcurrentHashMap<>();
+    private final Set<String> placedBlocks = new HashSet<>();
+    private final Set<String> placedAdded = new HashSet<>();
+    private final Set<String> placedRemoved = new HashSet<>();
+
+    public WarTally(long nationA, long nationB) {
+        this.nationA = nationA;
+        this.nationB = nationB;
+    }
+
+    public static WarTally restore(
+        long nationA,
+        long nationB,
+        long killsA,
+        long killsB,
+        long coreDamageA,
+        long coreDamageB,
+        Collection<PlayerStats> players,
+        Collection<String> placedBlocks
+    ) {
+        WarTally tally = new WarTally(nationA, nationB);
+        tally.sideA.kills.add(killsA);
+        tally.sideA.deaths.add(killsB);
+        tally.sideA.coreDamage.add(coreDamageA);
+        tally.sideB.kills.add(killsB);
+        tally.sideB.deaths.add(killsA);
+        tally.sideB.coreDamage.add(coreDamageB);
+        for (PlayerStats stats : players) {
+            PlayerTally player = tally.player(stats.playerUuid(), stats.nationId());
+            player.kills.add(stats.kills());
+            player.deaths.add(stats.deaths());
+            player.coreDamage.add(stats.coreDamage());
+        }
+        tally.placedBlocks.addAll(placedBlocks);
+        return tally;
+    }
+
+    public boolean recordKill(long killerNationId, UUID killerUuid, UUID victimUuid) {
+        Side attacker = side(killerNationId);
+        if (attacker == null) {
+            return false;
+        }
+        long victimNationId = opponentOf(killerNationId);
+        attacker.kills.increment();
+        side(victimNationId).deaths.increment();
+        player(killerUuid, killerNationId).kills.increment();
+        player(victimUuid, victimNationId).deaths.increment();
+        return true;
+    }
+
+    public synchronized void markPlaced(String blockKey) {
+        if (placedBlocks.add(blockKey)) {
+            placedAdded.add(blockKey);
+            placedRemoved.remove(blockKey);
+        }
+    }
+
+    public boolean recordCoreDamage(long attackerNationId, UUID playerUuid, String blockKey) {
+        Side attacker = side(attackerNationId);
+        if (attacker == null || consumePlaced(blockKey)) {
+            return false;
+        }
+        attacker.coreDamage.increment();
+        player(playerUuid, attackerNationId).coreDamage.increment();
+        return true;
+    }
+
+    public Totals totals(long nationId) {
+        Side side = side(nationId);
+        if (side == null) {
+            return new Totals(0L, 0L, 0L);
+        }
+        return new Totals(side.kills.sum(), side.deaths.sum(), side.coreDamage.sum());
+    }
+
+    public List<PlayerStats> playerStats() {
+        List<PlayerStats> stats = new ArrayList<>(players.size());
+        for (Map.Entry<UUID, PlayerTally> entry : players.entrySet()) {
+            PlayerTally tally = entry.getValue();
+            stats.add(new PlayerStats(
+                entry.getKey(),
+                tally.nationId,
+                tally.kills.sum(),
+                tally.deaths.sum(),
+                tally.coreDamage.sum()
+            ));
+        }
+        return stats;
+    }
+
+    public synchronized PlacedChanges placedChanges() {
+        return new PlacedChanges(List.copyOf(placedAdded), List.copyOf(placedRemoved));
+    }
+
+    public synchronized void placedChangesSaved(PlacedChanges changes) {
+        for (String blockKey : changes.added()) {
+            if (placedBlocks.contains(blockKey)) {
+                placedAdded.remove(blockKey);
+            }
+        }
+        for (String blockKey : changes.removed()) {
+            if (!placedBlocks.contains(blockKey)) {
+                placedRemoved.remove(blockKey);
+            }
+        }
+    }
+
+    private synchronized boolean consumePlaced(String blockKey) {
+        if (!placedBlocks.remove(blockKey)) {
+            return false;
+        }
+        placedRemoved.add(blockKey);
+        placedAdded.remove(blockKey);
+        return true;
+    }
+
+    private long opponentOf(long nationId) {
+        return nationId == nationA ? nationB : nationA;
+    }
+
+    private Side side(long nationId) {
+        if (nationId == nationA) {
+            return sideA;
+        }
+        if (nationId == nationB) {
+            return sideB;
+        }
+        return null;
+    }
+
+    private PlayerTally player(UUID playerUuid, long nationId) {
+        return players.computeIfAbsent(playerUuid, key -> new PlayerTally(nationId));
+    }
+
+    private static final class Side {
+        private final LongAdder kills = new LongAdder();
+        private final LongAdder deaths = new LongAdder();
+        private final LongAdder coreDamage = new LongAdder();
+    }
+
+    private static final class PlayerTally {
+        private final long nationId;
+        private final LongAdder kills = new LongAdder();
+        private final LongAdder deaths = new LongAdder();
+        private final LongAdder coreDamage = new LongAdder();
+
+        private PlayerTally(long nationId) {
+            this.nationId = nationId;
+        }
+    }
+
+    public record Totals(long kills, long deaths, long coreDamage) {
+    }
+
+    public record PlacedChanges(List<String> added, List<String> removed) {
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    public record PlayerStats(UUID playerUuid, long nationId, long kills, long deaths, long coreDamage) {
+    }
+}
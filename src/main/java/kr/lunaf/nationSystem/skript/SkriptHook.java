@@ -5,6 +5,8 @@ import ch.njol.skript.SkriptAddon;
 import kr.lunaf.nationSystem.skript.expr.ExprNationId;
 import kr.lunaf.nationSystem.skript.expr.ExprNationLevel;
 import kr.lunaf.nationSystem.skript.expr.ExprNationName;
+import kr.lunaf.nationSystem.skript.expr.ExprNationRank;
+import kr.lunaf.nationSystem.skript.expr.ExprTopNations;
 import kr.lunaf.nationSystem.skript.cond.CondInNation;
 import kr.lunaf.nationSystem.skript.cond.CondInWar;
 import kr.lunaf.nationSystem.skript.effect.EffSendNationMessage;
@@ -35,6 +37,10 @@ public class SkriptHook {
             "nation id of %player%");
         Skript.registerExpression(ExprNationLevel.class, Integer.class, ch.njol.skript.lang.ExpressionType.PROPERTY,
             "nation level of %player%");
+        Skript.registerExpression(ExprNationRank.class, Integer.class, ch.njol.skript.lang.ExpressionType.PROPERTY,
+            "nation rank of %player%", "nation level rank of %player%", "nation exp rank of %player%");
+        Skript.registerExpression(ExprTopNations.class, String.class, ch.njol.skript.lang.ExpressionType.COMBINED,
+            "top %number% nations", "top %number% nations by level", "top %number% nations by exp");
         Skript.registerCondition(CondInNation.class, "%player% is in nation");
         Skript.registerCondition(CondInWar.class, "%player% is in war");
         Skript.registerEffect(EffSendNationMessage.class, "send nation message %string% to %player%");
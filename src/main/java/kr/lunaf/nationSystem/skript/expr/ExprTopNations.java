@@ -0,0 +1,54 @@
+package kr.lunaf.nationSystem.skript.expr;
+
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.SkriptParser;
+import ch.njol.skript.lang.util.SimpleExpression;
+import ch.njol.util.Kleenean;
+import kr.lunaf.nationSystem.api.NationSystemApi;
+import kr.lunaf.nationSystem.domain.LeaderboardMetric;
+import kr.lunaf.nationSystem.domain.NationStanding;
+import kr.lunaf.nationSystem.skript.SkriptBridge;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.Nullable;
+
+public class ExprTopNations extends SimpleExpression<String> {
+    private Expression<Number> countExpr;
+    private LeaderboardMetric metric;
+
+    @Override
+    public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, SkriptParser.ParseResult parseResult) {
+        this.countExpr = (Expression<Number>) exprs[0];
+        this.metric = LeaderboardMetric.values()[matchedPattern];
+        return true;
+    }
+
+    @Override
+    protected String[] get(Event event) {
+        NationSystemApi api = SkriptBridge.api();
+        if (api == null) {
+            return new String[0];
+        }
+        Number count = countExpr.getSingle(event);
+        if (count == null || count.intValue() <= 0) {
+            return new String[0];
+        }
+        return api.getTopNations(metric, 0, count.intValue()).stream()
+            .map(NationStanding::nationName)
+            .toArray(String[]::new);
+    }
+
+    @Override
+    public boolean isSingle() {
+        return false;
+    }
+
+    @Override
+    public Class<? extends String> getReturnType() {
+        return String.class;
+    }
+
+    @Override
+    public String toString(@Nullable Event event, boolean debug) {
+        return "top nations";
+    }
+}
@@ -0,0 +1,136 @@
+package kr.lunaf.nationSystem.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+public class DeadlineQueue<K, V> {
+    private static final long MIN_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(250L);
+    private static final long MAX_RETRY_NANOS = TimeUnit.SECONDS.toNanos(10L);
+
+    private final String name;
+    private final Executor executor;
+    private final Consumer<List<V>> handler;
+    private final Logger logger;
+    private final DelayQueue<Entry<K, V>> queue = new DelayQueue<>();
+    private final Map<K, Long> generations = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile Thread worker;
+    private long retryNanos = MIN_RETRY_NANOS;
+
+    public DeadlineQueue(String name, Executor executor, Consumer<List<V>> handler, Logger logger) {
+        this.name = name;
+        this.executor = executor;
+        this.handler = handler;
+        this.logger = logger;
+    }
+
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        Thread thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        queue.clear();
+        generations.clear();
+    }
+
+    public void schedule(K key, V value, Instant deadline) {
+        long generation = sequence.incrementAndGet();
+        generations.put(key, generation);
+        long delay = Math.max(0L, Duration.between(Instant.now(), deadline).toNanos());
+        queue.put(new Entry<>(key, value, System.nanoTime() + delay, generation));
+    }
+
+    public void cancel(K key) {
+        generations.remove(key);
+    }
+
+    public boolean isScheduled(K key) {
+        return generations.containsKey(key);
+    }
+
+    public int size() {
+        return generations.size();
+    }
+
+    private void run() {
+        List<Entry<K, V>> drained = new ArrayList<>();
+        while (worker == Thread.currentThread()) {
+            try {
+                drained.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(drained);
+            List<Entry<K, V>> dueEntries = new ArrayList<>(drained.size());
+            for (Entry<K, V> entry : drained) {
+                if (generations.remove(entry.key(), entry.generation())) {
+                    dueEntries.add(entry);
+                }
+            }
+            drained.clear();
+            if (dueEntries.isEmpty()) {
+                continue;
+            }
+            List<V> due = new ArrayList<>(dueEntries.size());
+            for (Entry<K, V> entry : dueEntries) {
+                due.add(entry.value());
+            }
+            try {
+                executor.execute(() -> handler.accept(due));
+                retryNanos = MIN_RETRY_NANOS;
+            } catch (RejectedExecutionException e) {
+                logger.warning(name + " could not hand off " + due.size() + " due entries, retrying in "
+                    + TimeUnit.NANOSECONDS.toMillis(retryNanos) + "ms: " + e.getMessage());
+                requeue(dueEntries, System.nanoTime() + retryNanos);
+                retryNanos = Math.min(MAX_RETRY_NANOS, retryNanos * 2);
+            }
+        }
+    }
+
+    private void requeue(List<Entry<K, V>> entries, long deadlineNanos) {
+        for (Entry<K, V> entry : entries) {
+            long generation = sequence.incrementAndGet();
+            if (generations.putIfAbsent(entry.key(), generation) == null) {
+                queue.put(new Entry<>(entry.key(), entry.value(), deadlineNanos, generation));
+            }
+        }
+    }
+
+    private record Entry<K, V>(K key, V value, long deadlineNanos, long generation) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other instanceof Entry<?, ?> entry) {
+                return Long.compare(deadlineNanos, entry.deadlineNanos);
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
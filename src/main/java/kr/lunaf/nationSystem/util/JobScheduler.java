@@ -0,0 +1,201 @@
+package kr.lunaf.nationSystem.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class JobScheduler {
+    private final Logger logger;
+    private final ScheduledExecutorService timer;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private volatile boolean stopped;
+
+    public JobScheduler(Logger logger) {
+        this.logger = logger;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "NationSystem-Jobs");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void schedule(String name, Duration initialDelay, Duration period, Duration jitter, Supplier<CompletableFuture<?>> action) {
+        if (stopped) {
+            throw new IllegalStateException("Job scheduler is stopped");
+        }
+        Job job = new Job(name, period.toNanos(), jitter.toNanos(), action);
+        if (jobs.putIfAbsent(name, job) != null) {
+            throw new IllegalArgumentException("Job already scheduled: " + name);
+        }
+        job.arm(System.nanoTime() + initialDelay.toNanos());
+    }
+
+    public void stop() {
+        stopped = true;
+        timer.shutdownNow();
+    }
+
+    public List<Stats> stats() {
+        List<Stats> stats = new ArrayList<>(jobs.size());
+        for (Job job : jobs.values()) {
+            stats.add(job.stats());
+        }
+        stats.sort(Comparator.comparing(Stats::name));
+        return stats;
+    }
+
+    private final class Job {
+        private final String name;
+        private final long periodNanos;
+        private final long jitterNanos;
+        private final Supplier<CompletableFuture<?>> action;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder coalesced = new LongAdder();
+        private volatile boolean pending;
+        private volatile long nextDue;
+        private volatile long firesAt;
+        private volatile long lastDurationNanos;
+        private volatile long maxDurationNanos;
+        private volatile long lastLagNanos;
+        private volatile long maxLagNanos;
+        private volatile String lastError;
+
+        private Job(String name, long periodNanos, long jitterNanos, Supplier<CompletableFuture<?>> action) {
+            this.name = name;
+            this.periodNanos = Math.max(1L, periodNanos);
+            this.jitterNanos = Math.max(0L, jitterNanos);
+            this.action = action;
+        }
+
+        private void arm(long due) {
+            nextDue = due;
+            long jitter = jitterNanos == 0L ? 0L : ThreadLocalRandom.current().nextLong(jitterNanos);
+            firesAt = due + jitter;
+            try {
+                timer.schedule(this::fire, Math.max(0L, firesAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                if (!stopped) {
+                    throw e;
+                }
+            }
+        }
+
+        private void fire() {
+            long now = System.nanoTime();
+            try {
+                long lag = Math.max(0L, now - firesAt);
+                lastLagNanos = lag;
+                if (lag > maxLagNanos) {
+                    maxLagNanos = lag;
+                }
+                if (running.compareAndSet(false, true)) {
+                    start();
+                } else {
+                    skipped.increment();
+                    pending = true;
+                }
+            } finally {
+                long due = nextDue + periodNanos;
+                if (due <= now) {
+                    long missed = (now - due) / periodNanos + 1;
+                    skipped.add(missed);
+                    due += missed * periodNanos;
+                }
+                arm(due);
+            }
+        }
+
+        private void start() {
+            long startedAt = System.nanoTime();
+            CompletableFuture<?> future;
+            try {
+                future = action.get();
+            } catch (Throwable t) {
+                future = CompletableFuture.failedFuture(t);
+            }
+            if (future == null) {
+                future = CompletableFuture.failedFuture(new NullPointerException("Job " + name + " returned no future"));
+            }
+            future.whenComplete((ignored, error) -> finish(startedAt, error));
+        }
+
+        private void finish(long startedAt, Throwable error) {
+            long duration = System.nanoTime() - startedAt;
+            runs.increment();
+            lastDurationNanos = duration;
+            if (duration > maxDurationNanos) {
+                maxDurationNanos = duration;
+            }
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                failures.increment();
+                lastError = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+                logger.log(Level.WARNING, "Job " + name + " failed", cause);
+            }
+            running.set(false);
+            if (pending && !stopped) {
+                pending = false;
+                coalesced.increment();
+                try {
+                    timer.execute(() -> {
+                        if (running.compareAndSet(false, true)) {
+                            start();
+                        }
+                    });
+                } catch (RejectedExecutionException ignored) {
+                }
+            }
+        }
+
+        private Stats stats() {
+            return new Stats(
+                name,
+                TimeUnit.NANOSECONDS.toMillis(periodNanos),
+                running.get(),
+                runs.sum(),
+                failures.sum(),
+                skipped.sum(),
+                coalesced.sum(),
+                lastDurationNanos,
+                maxDurationNanos,
+                lastLagNanos,
+                maxLagNanos,
+                lastError
+            );
+        }
+    }
+
+    public record Stats(
+        String name,
+        long periodMillis,
+        boolean running,
+        long runs,
+        long failures,
+        long skipped,
+        long coalesced,
+        long lastDurationNanos,
+        long maxDurationNanos,
+        long lastLagNanos,
+        long maxLagNanos,
+        String lastError
+    ) {
+    }
+}
@@ -0,0 +1,96 @@
+package kr.lunaf.nationSystem.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+
+public class MainThreadExecutor implements Executor {
+    private final Plugin plugin;
+    private final LongSupplier tickBudgetMillis;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder overflowTicks = new LongAdder();
+    private volatile long lastDrainNanos;
+    private volatile long maxDrainNanos;
+    private volatile boolean stopped;
+    private BukkitTask ticker;
+
+    public MainThreadExecutor(Plugin plugin, LongSupplier tickBudgetMillis) {
+        this.plugin = plugin;
+        this.tickBudgetMillis = tickBudgetMillis;
+    }
+
+    public void start() {
+        if (ticker == null) {
+            ticker = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+        }
+    }
+
+    public void stop() {
+        stopped = true;
+        if (ticker != null) {
+            ticker.cancel();
+            ticker = null;
+        }
+        runQueued(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (stopped) {
+            throw new RejectedExecutionException("Main thread executor is stopped");
+        }
+        queue.add(command);
+        depth.incrementAndGet();
+    }
+
+    public Stats stats() {
+        return new Stats(depth.get(), executed.sum(), overflowTicks.sum(), lastDrainNanos, maxDrainNanos);
+    }
+
+    private void drain() {
+        if (depth.get() == 0) {
+            lastDrainNanos = 0L;
+            return;
+        }
+        long started = System.nanoTime();
+        runQueued(started + tickBudgetMillis.getAsLong() * 1_000_000L);
+        long elapsed = System.nanoTime() - started;
+        lastDrainNanos = elapsed;
+        if (elapsed > maxDrainNanos) {
+            maxDrainNanos = elapsed;
+        }
+        if (depth.get() > 0) {
+            overflowTicks.increment();
+        }
+    }
+
+    private void runQueued(long deadline) {
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            depth.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                plugin.getLogger().log(Level.WARNING, "Main thread task failed", t);
+            }
+            executed.increment();
+            if (System.nanoTime() >= deadline) {
+                return;
+            }
+        }
+    }
+
+    public record Stats(int queued, long executed, long overflowTicks, long lastDrainNanos, long maxDrainNanos) {
+    }
+}
@@ -0,0 +1,185 @@
+package kr.lunaf.nationSystem.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class RankedIndex {
+    private static final int MAX_LEVEL = 32;
+    private static final int PROMOTE_BOUND = 4;
+
+    private final Node head = new Node(0L, 0L, MAX_LEVEL);
+    private final Map<Long, Long> values = new HashMap<>();
+    private int level = 1;
+
+    public synchronized void update(long id, long value) {
+        Long previous = values.put(id, value);
+        if (previous != null) {
+            if (previous == value) {
+                return;
+            }
+            delete(id, previous);
+        }
+        insert(id, value);
+    }
+
+    public synchronized boolean remove(long id) {
+        Long previous = values.remove(id);
+        if (previous == null) {
+            return false;
+        }
+        delete(id, previous);
+        return true;
+    }
+
+    public synchronized void clear() {
+        values.clear();
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = null;
+            head.span[i] = 0;
+        }
+        level = 1;
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    public synchronized Entry find(long id) {
+        Long value = values.get(id);
+        if (value == null) {
+            return null;
+        }
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], value, id) <= 0) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && x.id == id) {
+                return new Entry(rank, id, value);
+            }
+        }
+        return null;
+    }
+
+    public synchronized List<Entry> page(int offset, int limit) {
+        if (offset < 0 || limit <= 0 || offset >= values.size()) {
+            return List.of();
+        }
+        int target = offset + 1;
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= target) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == target) {
+                break;
+            }
+        }
+        List<Entry> entries = new ArrayList<>(Math.min(limit, values.size() - offset));
+        int rank = target;
+        while (x != null && entries.size() < limit) {
+            entries.add(new Entry(rank++, x.id, x.value));
+            x = x.next[0];
+        }
+        return entries;
+    }
+
+    private void insert(long id, long value) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && compare(x.next[i], value, id) < 0) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = values.size() - 1;
+            }
+            level = nodeLevel;
+        }
+        Node node = new Node(id, value, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+    }
+
+    private void delete(long id, long value) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && compare(x.next[i], value, id) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        Node target = x.next[0];
+        if (target == null || target.id != id) {
+            throw new IllegalStateException("Ranked index is missing id " + id);
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].span[i] += target.span[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+    }
+
+    private static int compare(Node node, long value, long id) {
+        if (node.value != value) {
+            return node.value > value ? -1 : 1;
+        }
+        return Long.compare(node.id, id);
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextInt(PROMOTE_BOUND) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node {
+        private final long id;
+        private final long value;
+        private final Node[] next;
+        private final int[] span;
+
+        private Node(long id, long value, int level) {
+            this.id = id;
+            this.value = value;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    public record Entry(int rank, long id, long value) {
+    }
+}
@@ -0,0 +1,130 @@
+package kr.lunaf.nationSystem.util;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+public final class StorageCodec {
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x4E535354;
+    private static final int MAX_SLOTS = 54;
+    private static final int MAX_ITEM_BYTES = 1 << 20;
+    private static final byte[] EMPTY_SLOT = new byte[0];
+
+    private StorageCodec() {
+    }
+
+    public static byte[] encode(ItemStack[] items) {
+        byte[][] slots = new byte[items.length][];
+        for (int i = 0; i < items.length; i++) {
+            slots[i] = encodeSlot(items[i]);
+        }
+        return pack(slots);
+    }
+
+    public static byte[] encodeSlot(ItemStack item) {
+        return isEmpty(item) ? EMPTY_SLOT : item.serializeAsBytes();
+    }
+
+    public static boolean isEmpty(ItemStack item) {
+        return item == null || item.getType() == Material.AIR;
+    }
+
+    public static byte[] pack(byte[][] slots) {
+        if (slots.length > MAX_SLOTS) {
+            throw new IllegalArgumentException("Storage has " + slots.length + " slots, maximum is " + MAX_SLOTS);
+        }
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream();
+            DataOutputStream payloadOutput = new DataOutputStream(payload);
+            for (byte[] bytes : slots) {
+                payloadOutput.writeInt(bytes.length);
+                payloadOutput.write(bytes);
+            }
+            payloadOutput.flush();
+            byte[] raw = payload.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(raw);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 32);
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(MAGIC);
+            header.writeByte(FORMAT_VERSION);
+            header.writeByte(slots.length);
+            header.writeInt(raw.length);
+            header.writeInt((int) crc.getValue());
+            header.flush();
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DeflaterOutputStream compressed = new DeflaterOutputStream(out, deflater)) {
+                compressed.write(raw);
+            } finally {
+                deflater.end();
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode storage", e);
+        }
+    }
+
+    public static ItemStack[] decode(byte[] data) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (input.readInt() != MAGIC) {
+                throw new IllegalStateException("Not a storage blob");
+            }
+            int version = input.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported storage format version " + version);
+            }
+            int slots = input.readUnsignedByte();
+            int rawLength = input.readInt();
+            int expectedCrc = input.readInt();
+            if (slots > MAX_SLOTS || rawLength < slots * 4) {
+                throw new IllegalStateException("Corrupted storage header");
+            }
+            byte[] raw;
+            try (InflaterInputStream inflater = new InflaterInputStream(input)) {
+                raw = inflater.readNBytes(rawLength);
+                if (raw.length != rawLength || inflater.read() != -1) {
+                    throw new IllegalStateException("Storage payload length mismatch");
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(raw);
+            if ((int) crc.getValue() != expectedCrc) {
+                throw new IllegalStateException("Storage checksum mismatch");
+            }
+            DataInputStream payload = new DataInputStream(new ByteArrayInputStream(raw));
+            ItemStack[] items = new ItemStack[slots];
+            for (int i = 0; i < slots; i++) {
+                int length = payload.readInt();
+                if (length == 0) {
+                    continue;
+                }
+                if (length < 0 || length > MAX_ITEM_BYTES) {
+                    throw new IllegalStateException("Corrupted item length in slot " + i);
+                }
+                byte[] bytes = payload.readNBytes(length);
+                if (bytes.length != length) {
+                    throw new IllegalStateException("Truncated item in slot " + i);
+                }
+                items[i] = ItemStack.deserializeBytes(bytes);
+            }
+            if (payload.available() > 0) {
+                throw new IllegalStateException("Trailing bytes in storage payload");
+            }
+            return items;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to decode storage", e);
+        }
+    }
+}
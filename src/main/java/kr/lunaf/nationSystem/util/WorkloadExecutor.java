@@ -0,0 +1,172 @@
+package kr.lunaf.nationSystem.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class WorkloadExecutor extends AbstractExecutorService {
+    private final String name;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final Logger logger;
+    private final BlockingQueue<QueuedTask> queue;
+    private final Semaphore permits;
+    private final ThreadFactory threadFactory;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+    private volatile boolean shutdown;
+
+    public WorkloadExecutor(String name, int maxConcurrency, int queueCapacity, Logger logger) {
+        this.name = name;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.logger = logger;
+        this.queue = new ArrayBlockingQueue<>(this.queueCapacity);
+        this.permits = new Semaphore(this.maxConcurrency);
+        this.threadFactory = Thread.ofVirtual().name("NationSystem-" + name + "-", 0).factory();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (shutdown) {
+            rejected.increment();
+            throw new RejectedExecutionException(name + " executor is shut down");
+        }
+        if (!queue.offer(new QueuedTask(command, System.nanoTime()))) {
+            rejected.increment();
+            throw new RejectedExecutionException(name + " executor queue is full (" + queueCapacity + ")");
+        }
+        submitted.increment();
+        dispatch();
+    }
+
+    private void dispatch() {
+        while (!queue.isEmpty() && permits.tryAcquire()) {
+            QueuedTask task = queue.poll();
+            if (task == null) {
+                permits.release();
+                continue;
+            }
+            threadFactory.newThread(() -> work(task)).start();
+        }
+    }
+
+    private void work(QueuedTask first) {
+        try {
+            QueuedTask task = first;
+            while (task != null) {
+                run(task);
+                task = queue.poll();
+            }
+        } finally {
+            permits.release();
+            dispatch();
+        }
+    }
+
+    private void run(QueuedTask task) {
+        long waited = System.nanoTime() - task.enqueuedAt();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+        try {
+            task.command().run();
+        } catch (Throwable t) {
+            failed.increment();
+            logger.log(Level.WARNING, name + " task failed", t);
+        } finally {
+            completed.increment();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<QueuedTask> drained = new ArrayList<>();
+        queue.drainTo(drained);
+        List<Runnable> pending = new ArrayList<>(drained.size());
+        for (QueuedTask task : drained) {
+            pending.add(task.command());
+        }
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && queue.isEmpty() && permits.availablePermits() == maxConcurrency;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!isTerminated()) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(10L);
+        }
+        return true;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Stats stats() {
+        long done = completed.sum();
+        return new Stats(
+            name,
+            maxConcurrency - permits.availablePermits(),
+            maxConcurrency,
+            queue.size(),
+            queueCapacity,
+            submitted.sum(),
+            done,
+            failed.sum(),
+            rejected.sum(),
+            done == 0 ? 0L : totalWaitNanos.sum() / done,
+            maxWaitNanos.get()
+        );
+    }
+
+    private record QueuedTask(Runnable command, long enqueuedAt) {
+    }
+
+    public record Stats(
+        String name,
+        int active,
+        int maxConcurrency,
+        int queued,
+        int queueCapacity,
+        long submitted,
+        long completed,
+        long failed,
+        long rejected,
+        long averageWaitNanos,
+        long maxWaitNanos
+    ) {
+    }
+}